@@ -27,7 +27,7 @@ public class Brain extends HashMap<Integer, State> implements Comparable<Brain>
 	private static final long serialVersionUID = 1L;
 	private static final int minNumOfStates = 1;
 	private static final int maxNumOfStates = 10000;
-	private static final int fitnessLength = 20;
+	public static final int fitnessLength = 20;
 	private int[] fitnesses = new int[fitnessLength];
 	private int wins = 0;
 	private int losses = 0;
@@ -85,6 +85,16 @@ public class Brain extends HashMap<Integer, State> implements Comparable<Brain>
 		return t;
 	}
 	
+	/**
+	 *  getFitness
+	 *  to return one of the fitness values of this Brain
+	 * @param i the location in the fitnesses array to get
+	 * @return the value, 0 if it has not been set
+	 */
+	public int getFitness(int i) {
+		return this.fitnesses[i];
+	}
+	
 	/**
 	 *  setFitness
 	 *  to set the fitness of this Brain to one value, and to clear
@@ -145,6 +155,20 @@ public class Brain extends HashMap<Integer, State> implements Comparable<Brain>
 		this.draws++;
 	}
 	
+	/**
+	 *  addResults
+	 *  to add the results of a number of games to the current numbers of
+	 * wins, losses and draws.
+	 * @param wins the number of games won
+	 * @param losses the number of games lost
+	 * @param draws the number of games drawn
+	 */
+	public void addResults(int wins, int losses, int draws) {
+		this.wins += wins;
+		this.losses += losses;
+		this.draws += draws;
+	}
+	
 	/**
 	 *  getWins
 	 *  to get the current number of wins.
@@ -0,0 +1,180 @@
+package antBrain;
+
+import utilities.Logger;
+import utilities.WarningEvent;
+
+/**
+ *  CompiledBrain
+ *  holds a Brain flattened into a dense int table, indexed by state
+ * number, so that Ants can execute instructions without HashMap lookups,
+ * Integer boxing or enum ordinal() calls.
+ *
+ * Each State occupies stride consecutive ints:
+ * [instruction word, st1 index, st2 index, p]
+ * The instruction word packs the command ordinal and its operands,
+ * st1 and st2 are stored as indexes into the table (stateNum * stride),
+ * so the next state can be jumped to directly.
+ *
+ * @author pkew20 / 57116
+ * @version 1.0
+ */
+public final class CompiledBrain {
+	//Table layout, offsets from the index of a state
+	public static final int stride = 4;
+	public static final int instruction = 0;
+	public static final int st1 = 1;
+	public static final int st2 = 2;
+	public static final int p = 3;
+	
+	//Instruction word layout
+	//bits 0-3:   command ordinal, nullCommand if the state does not exist
+	//bits 4-7:   senseDir, turnDir or marker, whichever the command uses
+	//bits 8-11:  condition ordinal
+	//bits 12-15: senseMarker
+	public static final int nullCommand = 0xF;
+	private static final int fieldMask = 0xF;
+	private static final int operandShift = 4;
+	private static final int conditionShift = 8;
+	private static final int senseMarkerShift = 12;
+	
+	private final Brain brain;
+	private final int[] table;
+	
+	/**
+	 *  CompiledBrain
+	 *  to flatten the given Brain into a table of ints
+	 * @param brain the Brain to compile, which is not altered
+	 */
+	public CompiledBrain(Brain brain) {
+		this.brain = brain;
+		
+		//Table must hold state 0, every state present, and every state referenced
+		int states = 1;
+		for(Integer key : brain.keySet()){
+			State state = brain.get(key);
+			states = Math.max(states, key + 1);
+			if(state != null){
+				states = Math.max(states, state.getSt1() + 1);
+				states = Math.max(states, state.getSt2() + 1);
+			}
+		}
+		this.table = new int[states * stride];
+		
+		for(int stateNum = 0; stateNum < states; stateNum++){
+			compile(stateNum, brain.get(stateNum));
+		}
+	}
+	
+	private void compile(int stateNum, State state) {
+		int index = stateNum * stride;
+		if(state == null){
+			//Missing states leave the Ant where it is,
+			//rather than failing every time the state is reached
+			this.table[index + instruction] = nullCommand;
+			this.table[index + st1] = index;
+			this.table[index + st2] = index;
+			Logger.log(new WarningEvent("Brain compiled with missing state " + stateNum));
+			return;
+		}
+		
+		int command = state.getCommand();
+		int operand = 0;
+		switch(command){
+		//Sense senseDir st1 st2 condition (senseMarker)
+		case 0:
+			operand = state.getSenseDir();
+			break;
+		//Mark marker st1
+		case 1:
+		//Unmark marker st1
+		case 2:
+			operand = state.getMarker();
+			break;
+		//Turn turnDir st1
+		case 5:
+			operand = state.getTurnDir();
+			break;
+		default:
+			//No operand
+		}
+		
+		int word = (command == -1 ? nullCommand : command)
+			| ((operand & fieldMask) << operandShift)
+			| ((state.getCondition() & fieldMask) << conditionShift)
+			| ((state.getSenseMarker() & fieldMask) << senseMarkerShift);
+		
+		this.table[index + instruction] = word;
+		//Unused successors point back to this state, so they are never out of range
+		this.table[index + st1] = state.getSt1() < 0 ? index : state.getSt1() * stride;
+		this.table[index + st2] = state.getSt2() < 0 ? index : state.getSt2() * stride;
+		this.table[index + p] = state.getP();
+	}
+	
+	/**
+	 *  getCommand
+	 *  to decode the command from an instruction word
+	 * @param word the instruction word of a state
+	 * @return the ordinal of the command, or nullCommand
+	 */
+	public static int getCommand(int word) {
+		return word & fieldMask;
+	}
+	
+	/**
+	 *  getOperand
+	 *  to decode the senseDir, turnDir or marker from an instruction word
+	 * @param word the instruction word of a state
+	 * @return the ordinal of whichever operand the command uses
+	 */
+	public static int getOperand(int word) {
+		return (word >>> operandShift) & fieldMask;
+	}
+	
+	/**
+	 *  getCondition
+	 *  to decode the condition from an instruction word
+	 * @param word the instruction word of a state
+	 * @return the ordinal of the condition of a Sense state
+	 */
+	public static int getCondition(int word) {
+		return (word >>> conditionShift) & fieldMask;
+	}
+	
+	/**
+	 *  getSenseMarker
+	 *  to decode the senseMarker from an instruction word
+	 * @param word the instruction word of a state
+	 * @return the marker sensed by a Sense Marker state
+	 */
+	public static int getSenseMarker(int word) {
+		return (word >>> senseMarkerShift) & fieldMask;
+	}
+	
+	/**
+	 *  getTable
+	 *  to get the compiled table, which must not be altered
+	 * @return the table of all states, stride ints per state
+	 */
+	public int[] getTable() {
+		return this.table;
+	}
+	
+	/**
+	 *  getBrain
+	 *  to get the Brain this table was compiled from
+	 * @return the source Brain
+	 */
+	public Brain getBrain() {
+		return this.brain;
+	}
+	
+	/**
+	 *  getStateNum
+	 *  to convert an index into the table back into a state number
+	 * @param index the index of a state in the table
+	 * @return the state number
+	 */
+	public static int getStateNum(int index) {
+		return index / stride;
+	}
+}
@@ -0,0 +1,64 @@
+package antBrain;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import utilities.IOEvent;
+import utilities.IllegalArgumentEvent;
+import utilities.Logger;
+
+public class CompiledBrainTest {
+	
+	public CompiledBrainTest(){
+		Logger.setLogLevel(Logger.LogLevel.WARNING_LOGGING);
+	}
+	
+	@Test
+	public void testCompileMatchesStates() {
+		try {
+			Brain testBrain = BrainParser.readBrainFrom("frictionless_bananas_1");
+			CompiledBrain compiled = new CompiledBrain(testBrain);
+			int[] table = compiled.getTable();
+			//every state must decode to the same values as the State it came from
+			for(Integer key : testBrain.keySet()){
+				State state = testBrain.get(key);
+				int index = key * CompiledBrain.stride;
+				int word = table[index + CompiledBrain.instruction];
+				assertEquals(state.getCommand(), CompiledBrain.getCommand(word));
+				assertEquals(state.getSt1() * CompiledBrain.stride, table[index + CompiledBrain.st1]);
+				if(state.getSt2() != -1){
+					assertEquals(state.getSt2() * CompiledBrain.stride, table[index + CompiledBrain.st2]);
+				}
+				if(state.getCommand() == 0){
+					assertEquals(state.getSenseDir(), CompiledBrain.getOperand(word));
+					assertEquals(state.getCondition(), CompiledBrain.getCondition(word));
+					if(state.getSenseMarker() != -1){
+						assertEquals(state.getSenseMarker(), CompiledBrain.getSenseMarker(word));
+					}
+				}else if(state.getCommand() == 5){
+					assertEquals(state.getTurnDir(), CompiledBrain.getOperand(word));
+				}else if(state.getCommand() == 7){
+					assertEquals(state.getP(), table[index + CompiledBrain.p]);
+				}
+			}
+		} catch (IOEvent e) {
+			fail(e.getMessage());
+		} catch (IllegalArgumentEvent e) {
+			fail(e.getMessage());
+		}
+	}
+	
+	@Test
+	public void testMissingState() {
+		try {
+			Brain testBrain = new Brain(2);
+			testBrain.put(0, new State(0, "Move 0 3"));
+			CompiledBrain compiled = new CompiledBrain(testBrain);
+			//state 3 is referenced, so the table must reach it
+			assertEquals(4 * CompiledBrain.stride, compiled.getTable().length);
+			assertEquals(CompiledBrain.nullCommand, CompiledBrain.getCommand(
+				compiled.getTable()[3 * CompiledBrain.stride + CompiledBrain.instruction]));
+		} catch (IllegalArgumentEvent e) {
+			fail(e.getMessage());
+		}
+	}
+}
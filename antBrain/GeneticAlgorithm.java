@@ -11,14 +11,22 @@ import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Random;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.SplittableRandom;
 import java.util.Set;
-import java.util.Stack;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
-
-import antWorld.World;
+import java.util.function.Consumer;
 
 import utilities.ErrorEvent;
+import utilities.Event;
 import utilities.IOEvent;
 import utilities.IllegalArgumentEvent;
 import utilities.InformationHighEvent;
@@ -29,6 +37,9 @@ import utilities.TimeEvent;
 import utilities.WarningEvent;
 
 import engine.GameEngine;
+import antWorld.Ant;
+import antWorld.Cell;
+import antWorld.World;
 
 /**
  *  GeneticAlgorithm
@@ -46,12 +57,45 @@ public class GeneticAlgorithm implements Serializable {
 	private transient static final File superFolder = new File(superFolderPath);
 	private transient static final String subFolderPathPrefix =
 		superFolderPath + "\\" + "genetic_algorithm_";
-	private transient static final Random ran = new Random();
 	
 	//Transient object variables
 	private transient final String goal;
 	private transient final int instance;
+	//Name of the folder saves are made in, and of the best Brain files
+	private transient final String name;
 	private transient int popLen;
+	//Genomes of the population and of the children bred from it,
+	//reused every epoch, so breeding makes no garbage
+	private transient Genome[] parents;
+	private transient Genome[] children;
+	//Every child is bred with its own stream of random numbers, split from ran
+	//in the order of the children, so the same seed breeds the same generation
+	//on any number of threads, see setSeed() and setBreedThreads()
+	private transient SplittableRandom ran = new SplittableRandom();
+	private transient SplittableRandom[] streams;
+	private transient int breedThreads = Runtime.getRuntime().availableProcessors();
+	private transient ForkJoinPool breeders;
+	//Set when this GeneticAlgorithm is an island of an IslandModel
+	private transient Migration migration;
+	
+	//Fitness is measured in stages, new Brains are first screened with short
+	//games in a few Worlds, and only the best promotePercent of them are
+	//measured with full games, see setScreening() and setEvaluation(),
+	//unless set, every new Brain is measured in full
+	private transient int screenRounds = GameEngine.rounds;
+	private transient int screenSeeds = 0;
+	private transient int promotePercent = 100;
+	private transient int fullRounds = GameEngine.rounds;
+	private transient int fullSeeds = GameEngine.fitnessSeeds;
+	//Brains measured in full are raced, each a seed at a time from raceSeeds seeds
+	//on, any Brain that raceDelta confidence bounds put in the bottom half is
+	//dropped, unless set, no Brain is dropped
+	private transient int raceSeeds = GameEngine.fitnessSeeds;
+	private transient double raceDelta = 0.05;
+	//Ants in a fitness World, to count the Ant steps the screening saves,
+	//and the most the score of one fitness game can be from 0, for racing
+	private transient int fitnessAnts = -1;
+	private transient int scoreLimit = -1;
 	
 	//Persistent object variables which are read and written when the object is serialised
 	private int epoch;
@@ -63,6 +107,17 @@ public class GeneticAlgorithm implements Serializable {
 	 * @param goal the measure of fitness of the Brains in the population
 	 */
 	public GeneticAlgorithm(String goal) {
+		this(goal, -1);
+	}
+	
+	/**
+	 *  GeneticAlgorithm
+	 *  to construct one island of an IslandModel, which is saved, and
+	 * writes its best Brain, separately from the other islands
+	 * @param goal the measure of fitness of the Brains in the population
+	 * @param island the number of the island, -1 if not an island
+	 */
+	public GeneticAlgorithm(String goal, int island) {
 		this.goal = goal;
 		if(goal.equals("kills")){
 			this.instance = 0;
@@ -73,9 +128,120 @@ public class GeneticAlgorithm implements Serializable {
 		}else{
 			this.instance = -1;
 		}
+		if(island < 0){
+			this.name = this.instance + "_(" + goal + ")";
+		}else{
+			this.name = this.instance + "_(" + goal + ")_island_" + island;
+		}
 		this.epoch = 0;
 	}
 	
+	/**
+	 *  setScreening
+	 *  to set the budget of the first stage of measuring the fitness of new
+	 * Brains, which screens out the Brains not worth measuring in full,
+	 * screening is off unless set
+	 * @param rounds the number of rounds of each screening game
+	 * @param seeds the number of fitness seeds to screen in, 2 games each,
+	 * 0 to measure every new Brain in full
+	 * @param promotePercent the percentage of the screened Brains, the best
+	 * ones, which are measured in full, 100 to measure every new Brain in full
+	 * @throws IllegalArgumentEvent if a value is out of range
+	 */
+	public void setScreening(int rounds, int seeds, int promotePercent) throws IllegalArgumentEvent {
+		if(rounds < 1 || seeds < 0 || seeds > GameEngine.fitnessSeeds
+			|| promotePercent < 1 || promotePercent > 100){
+			throw new IllegalArgumentEvent("Illegal screening budget in GeneticAlgorithm: "
+				+ rounds + " rounds, " + seeds + " seeds, " + promotePercent + "% promoted");
+		}
+		this.screenRounds = rounds;
+		this.screenSeeds = seeds;
+		this.promotePercent = promotePercent;
+	}
+	
+	/**
+	 *  setEvaluation
+	 *  to set the budget of the last stage of measuring the fitness of new
+	 * Brains, which decides their place in the population
+	 * @param rounds the number of rounds of each game, GameEngine.rounds
+	 * unless set
+	 * @param seeds the number of fitness seeds to play in, 2 games each,
+	 * GameEngine.fitnessSeeds unless set
+	 * @throws IllegalArgumentEvent if a value is out of range
+	 */
+	public void setEvaluation(int rounds, int seeds) throws IllegalArgumentEvent {
+		if(rounds < 1 || seeds < 1 || seeds > GameEngine.fitnessSeeds){
+			throw new IllegalArgumentEvent("Illegal evaluation budget in GeneticAlgorithm: "
+				+ rounds + " rounds, " + seeds + " seeds");
+		}
+		this.fullRounds = rounds;
+		this.fullSeeds = seeds;
+	}
+	
+	/**
+	 *  setRacing
+	 *  to set when Brains being measured in full are dropped, once the
+	 * Hoeffding bounds on their mean scores, over the whole range the score of
+	 * a game can take, show at least half the population is better than them,
+	 * so evolve() would never breed from them, racing is off unless set
+	 * @param seeds the number of fitness seeds to play in before any Brain
+	 * is dropped, the evaluation seeds or more to measure every Brain in full
+	 * @param delta the chance any Brain of an epoch is dropped wrongly,
+	 * between 0 and 1, shared between every check of every Brain
+	 * @throws IllegalArgumentEvent if a value is out of range
+	 */
+	public void setRacing(int seeds, double delta) throws IllegalArgumentEvent {
+		if(seeds < 1 || delta <= 0 || delta >= 1){
+			throw new IllegalArgumentEvent("Illegal racing in GeneticAlgorithm: "
+				+ seeds + " seeds, " + delta + " delta");
+		}
+		this.raceSeeds = seeds;
+		this.raceDelta = delta;
+	}
+	
+	/**
+	 *  setSeed
+	 *  to set the seed of the random numbers Brains are bred with, so
+	 * evolution can be repeated
+	 * @param seed the seed
+	 */
+	public void setSeed(long seed) {
+		this.ran = new SplittableRandom(seed);
+	}
+	
+	/**
+	 *  setBreedThreads
+	 *  to set the number of threads the children of each epoch are bred on,
+	 * which does not change the children bred
+	 * @param threads the number of threads, the number of processors unless set
+	 * @throws IllegalArgumentEvent if threads is less than 1
+	 */
+	public void setBreedThreads(int threads) throws IllegalArgumentEvent {
+		if(threads < 1){
+			throw new IllegalArgumentEvent("Illegal number of breeding threads "
+				+ "in GeneticAlgorithm: " + threads);
+		}
+		this.breedThreads = threads;
+	}
+	
+	/**
+	 *  setMigration
+	 *  to exchange Brains with other populations every epoch
+	 * @param migration the exchange, null for none
+	 */
+	void setMigration(Migration migration) {
+		this.migration = migration;
+	}
+	
+	/**
+	 *  getSaveFolder
+	 *  to get the path of the folder this GeneticAlgorithm is saved in
+	 * @return the path of the folder, different for each goal and island
+	 */
+	String getSaveFolder() {
+		return subFolderPathPrefix + this.name;
+	}
+	
 	/**
 	 *  createPopulation
 	 *  overwrites the current population with a new array of Brain
@@ -159,8 +325,6 @@ public class GeneticAlgorithm implements Serializable {
 		}
 		Brain[] newPop;
 		int j = 0;
-		int ran1;
-		int ran2;
 		
 		//Elitism is where, when each epoch is run and a new population is
 		//formed from the offspring of the old population,
@@ -184,91 +348,257 @@ public class GeneticAlgorithm implements Serializable {
 		Logger.log(new TimeEvent("from start to beginning of first epoch", TimeUnit.SECONDS));
 		Logger.restartTimer();
 		
-		//After constructor, epoch == 1,
-		//after deserialisation, epoch == epoch to be run next
-		for(; this.epoch <= epochs; this.epoch++){
-			//Save at the start of every epoch,
-			//so evolve() can be terminated and resumed
-			save();
-			
-			Logger.log(new InformationLowEvent("Beginning epoch " + this.epoch));
-			
-			newPop = new Brain[this.popLen];
-			
-			//Copy over elite to the end
-			for(j = 0; j < elite; j++){
-				newPop[this.popLen - 1 - j] = this.population[this.popLen - 1 - j];
-			}
-			
-			//Breed good (most fit half of the population, includes the elite)
-			//Fill newPop from beginning to where elite starts
-			for(j = 0; j < this.popLen - elite; j++){
-				// Spawn child from 2 random parents
-				//(popLen / 2) 
-				ran1 = ran.nextInt(this.popLen / 2) + this.popLen / 2;
-				if(this.popLen < 3){
-					ran2 = 0;
-				}else{
-					try{
-						ran2 = ran.nextInt((this.popLen / 2) - 1) + this.popLen / 2;
-					}catch(IllegalArgumentException ex){
-						Logger.log(new WarningEvent("Ran arguments in GeneticAlgorithm: " +
-							"ran.nextInt((" + this.popLen + "/ 2) - 1) + "
-							+ this.popLen + " / 2", ex));
-						ran2 = 0;
-					}
-				}
-				// Avoid identical parents
-				if(ran2 >= ran1){
-					ran2++;
+		//The breeding threads are stopped however evolution ends
+		try{
+			//After constructor, epoch == 1,
+			//after deserialisation, epoch == epoch to be run next
+			for(; this.epoch <= epochs; this.epoch++){
+				//Save at the start of every epoch,
+				//so evolve() can be terminated and resumed
+				save();
+				
+				Logger.log(new InformationLowEvent("Beginning epoch " + this.epoch));
+				
+				newPop = breed(elite, mutationRate);
+				if(newPop == null){
+					return;
 				}
-				try {
-					newPop[j] = breed(this.population[ran1], this.population[ran2], mutationRate);
-				} catch (IllegalArgumentEvent e) {
-					Logger.log(e);
+				
+				//Immigrants take the place of children, so are measured with them
+				if(this.migration != null){
+					Brain[] immigrants = this.migration.migrate(this.epoch, this.population);
+					for(j = 0; j < immigrants.length && j < this.popLen - elite; j++){
+						newPop[j] = immigrants[j];
+					}
 				}
+				this.population = newPop;
+				//Order, ready for next epoch
+				rank(gameEngine, absoluteTrainingBrain);
+				
+				//Timing
+				Logger.log(new TimeEvent("for epoch " + (this.epoch - 1), TimeUnit.SECONDS));
+				Logger.restartTimer();
+				
+				//Logging
+				Logger.log(new InformationNormEvent("Completed "
+					+ (this.epoch) / (double) epochs * 100
+					+ "% of GeneticAlgorithm evolution epochs"));
 			}
-			this.population = newPop;
-			//Order, ready for next epoch
-			rank(gameEngine, absoluteTrainingBrain);
-			
-			//Timing
-			Logger.log(new TimeEvent("for epoch " + (this.epoch - 1), TimeUnit.SECONDS));
-			Logger.restartTimer();
-			
-			//Logging
-			Logger.log(new InformationNormEvent("Completed "
-				+ (this.epoch) / (double) epochs * 100
-				+ "% of GeneticAlgorithm evolution epochs"));
+		}finally{
+			stopBreeding();
 		}
 		Logger.log(new InformationHighEvent("Completed GeneticAlgorithm evolution"));
 	}
 	
-	private void rank(GameEngine gameEngine, Brain absoluteTrainingBrain){
-		gameEngine.fitnessContestSetup(this.population, absoluteTrainingBrain);
-		//Get popLen permits, restore as runs complete
-		Stack<World> worlds = new Stack<World>();
-		//Set fitness for every brain in population
-		for(int i = this.population.length - 1; i >= 0; i--){
-			try{
-				for(int f = 1; f <= 10; f++){
-					worlds.push(World.getContestWorld(f, null));
-					worlds.push(World.getContestWorld(f, null));
+	/**
+	 *  breed
+	 *  to breed the next generation from the population, which must be
+	 * ranked, the same seed breeds the same generation on any number of threads
+	 * @param elite the number of the best Brains to keep
+	 * @param mutationRate the chance of altering any part of any command in any
+	 * brain
+	 * @return the new population, the elite at the end and the children
+	 * before them, null if no children could be bred
+	 */
+	Brain[] breed(int elite, int mutationRate) {
+		Brain[] newPop = new Brain[this.popLen];
+		int j;
+		
+		//Copy over elite to the end
+		for(j = 0; j < elite; j++){
+			newPop[this.popLen - 1 - j] = this.population[this.popLen - 1 - j];
+		}
+		
+		try{
+			prepareGenomes(getChildSize());
+		}catch(IllegalArgumentEvent e){
+			Logger.log(e);
+			return null;
+		}
+		for(j = 0; j < this.popLen; j++){
+			this.parents[j].read(this.population[j]);
+		}
+		
+		//Breed good (most fit half of the population, includes the elite)
+		//Fill newPop from beginning to where elite starts
+		for(j = 0; j < this.popLen - elite; j++){
+			this.streams[j] = this.ran.split();
+		}
+		breedAll(newPop, this.popLen - elite, mutationRate);
+		return newPop;
+	}
+	
+	/**
+	 *  stopBreeding
+	 *  to stop the threads children are bred on, they are started again
+	 * if more children are bred
+	 */
+	void stopBreeding() {
+		if(this.breeders != null){
+			this.breeders.shutdown();
+			this.breeders = null;
+		}
+	}
+	
+	/**
+	 *  setPopulation
+	 *  to replace the population, e.g. to breed from it without evolve()
+	 * @param population the Brains, ordered with the best last
+	 */
+	void setPopulation(Brain[] population) {
+		this.population = population;
+		this.popLen = population.length;
+	}
+	
+	/**
+	 *  getPopulation
+	 *  to get the population, ordered with the best last once ranked
+	 * @return the Brains of the population
+	 */
+	Brain[] getPopulation() {
+		return this.population;
+	}
+	
+	/**
+	 * Breeds the first count Brains of newPop, split between up to
+	 * breedThreads threads, each breeding a run of children
+	 * @param newPop
+	 * @param count
+	 * @param mutationRate
+	 */
+	private void breedAll(final Brain[] newPop, int count, final int mutationRate) {
+		//Events are logged afterwards, in the order of the children
+		final Event[] events = new Event[count];
+		int workers = Math.min(this.breedThreads, count);
+		if(workers <= 1){
+			breedRange(newPop, events, 0, count, mutationRate);
+		}else{
+			if(this.breeders == null){
+				this.breeders = new ForkJoinPool(this.breedThreads);
+			}
+			List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(workers);
+			for(int i = 0; i < workers; i++){
+				final int from = count * i / workers;
+				final int to = count * (i + 1) / workers;
+				tasks.add(new Callable<Void>() {
+					@Override
+					public Void call() {
+						breedRange(newPop, events, from, to, mutationRate);
+						return null;
+					}
+				});
+			}
+			for(Future<Void> task : this.breeders.invokeAll(tasks)){
+				try{
+					task.get();
+				}catch(InterruptedException e){
+					Logger.log(new ErrorEvent("Breeding interrupted in GeneticAlgorithm", e));
+				}catch(ExecutionException e){
+					Logger.log(new ErrorEvent("Breeding failed in GeneticAlgorithm: "
+						+ e.getCause(), e.getCause()));
 				}
-			}catch(ErrorEvent e){
-				Logger.log(e);
 			}
+		}
+		for(Event event : events){
+			if(event != null){
+				Logger.log(event);
+			}
+		}
+	}
+	
+	/**
+	 * Breeds the Brains of newPop from index from to index to, each from 2
+	 * random parents in the better half of the population
+	 * @param newPop
+	 * @param events
+	 * @param from
+	 * @param to
+	 * @param mutationRate
+	 */
+	private void breedRange(Brain[] newPop, Event[] events, int from, int to, int mutationRate) {
+		SplittableRandom stream;
+		int ran1;
+		int ran2;
+		for(int j = from; j < to; j++){
+			stream = this.streams[j];
+			// Spawn child from 2 random parents
+			//(popLen / 2) 
+			ran1 = stream.nextInt(this.popLen / 2) + this.popLen / 2;
+			if(this.popLen < 3){
+				ran2 = 0;
+			}else{
+				try{
+					ran2 = stream.nextInt((this.popLen / 2) - 1) + this.popLen / 2;
+				}catch(IllegalArgumentException ex){
+					events[j] = new WarningEvent("Ran arguments in GeneticAlgorithm: " +
+						"ran.nextInt((" + this.popLen + "/ 2) - 1) + "
+						+ this.popLen + " / 2", ex);
+					ran2 = 0;
+				}
+			}
+			// Avoid identical parents
+			if(ran2 >= ran1){
+				ran2++;
+			}
+			this.children[j].breed(this.parents[ran1], this.parents[ran2], mutationRate, stream);
 			try {
-				gameEngine.fitnessContestStep(worlds, this.goal);
+				newPop[j] = this.children[j].toBrain();
 			} catch (IllegalArgumentEvent e) {
-				Logger.log(e);
+				events[j] = e;
 			}
-			while(worlds.size() > 0){
-				worlds.pop();
+		}
+	}
+	
+	/**
+	 *  rank
+	 *  to measure the fitness of the new Brains of the population, and to
+	 * order it, lowest fitness first, with the Brains screened out, then those
+	 * dropped from the race, below every Brain measured in full
+	 * @param gameEngine the GameEngine to play the fitness games on
+	 * @param absoluteTrainingBrain the Brain fitness is measured against
+	 */
+	void rank(GameEngine gameEngine, Brain absoluteTrainingBrain){
+		gameEngine.fitnessContestSetup(this.population, absoluteTrainingBrain);
+		//Brains without a fitness are new, the elite keep theirs
+		List<Brain> unmeasured = new ArrayList<Brain>();
+		List<Brain> measured = new ArrayList<Brain>();
+		for(Brain brain : this.population){
+			if(brain.getFitness() == 0){
+				unmeasured.add(brain);
+			}else{
+				measured.add(brain);
 			}
 		}
 		
+		//Set fitness for every new brain which passes the screening,
+		//the fitness Worlds are taken from the GameEngine's WorldPool
+		//and the games of all the Brains are played together
+		List<Brain> promoted = screen(gameEngine, unmeasured);
+		logScreening(gameEngine, unmeasured.size(), promoted.size());
+		List<Brain> dropped = race(gameEngine, promoted, measured);
+		
+		//Brains screened out, then Brains dropped from the race, go below
+		//every Brain measured in full, as their fitnesses are from fewer games
 		Arrays.sort(this.population);
+		Set<Brain> screenedOut = Collections.newSetFromMap(new IdentityHashMap<Brain, Boolean>());
+		screenedOut.addAll(unmeasured);
+		for(Brain brain : promoted){
+			screenedOut.remove(brain);
+		}
+		Set<Brain> raced = Collections.newSetFromMap(new IdentityHashMap<Brain, Boolean>());
+		raced.addAll(dropped);
+		Brain[] ranked = new Brain[this.population.length];
+		int j = 0;
+		for(Brain brain : this.population){
+			if(screenedOut.contains(brain)) ranked[j++] = brain;
+		}
+		for(Brain brain : this.population){
+			if(raced.contains(brain)) ranked[j++] = brain;
+		}
+		for(Brain brain : this.population){
+			if(!screenedOut.contains(brain) && !raced.contains(brain)) ranked[j++] = brain;
+		}
+		this.population = ranked;
 		
 		//Log fitness statistics
 		int total = 0;
@@ -285,208 +615,328 @@ public class GeneticAlgorithm implements Serializable {
 		
 		Logger.log(new InformationHighEvent("Fitnesses: max: " + maxFitness
 			+ ";  avg: " + avgFitness + ";  min: " + minFitness));
+		gameEngine.getWorldPool().logStatistics();
+		
+		//Only Brains measured in full keep their fitness, so a partial
+		//fitness is never taken for a full one, e.g. if one is kept in the
+		//elite, it is measured again with the new Brains
+		for(Brain brain : screenedOut){
+			brain.resetFitnesses();
+		}
+		for(Brain brain : raced){
+			brain.resetFitnesses();
+		}
 	}
 	
 	/**
-	 * @param brainA
-	 * @param brainB
-	 * @param mutationConstant
-	 * @return a new brain containing possibly altered states from A, B and new entirely states
-	 * @throws IllegalArgumentEvent 
+	 * Screens the Brains given with short games in a few Worlds
+	 * @param gameEngine
+	 * @param brains
+	 * @return the best promotePercent of the Brains, with no fitness, ready
+	 * to be measured in full, or every Brain given if screening is off
 	 */
-	private static Brain breed(Brain brainA, Brain brainB, int mutationConstant) throws IllegalArgumentEvent {
-		//The target Brain should contain a sensible number of states,
-		//it is not necessary for its size to change in the same direction on every breed
-		//The size of the brain resulting from evolution will reflect on the
-		//size which provides the best fitness
-		//i.e. size, in itself, is not inherently good
-		//Can't grow or shrink brains, which is bad
-		//Numbering of states, and their pointers are fixed,
-		//so reducing the size by removing a state would be a real pain,
-		//as changing every pointer would be inefficient,
-		//and leaving gaps might break some methods
-		int targetSize = 50;//Math.max(brainA.size(), brainB.size()) + ran.nextInt(2);
-		//Keep targetSize within limits
-		if(targetSize < Brain.getMinNumOfStates()){
-			Logger.log(new InformationLowEvent("Brain bred containing the " +
-				"minimum number of states (" + Brain.getMinNumOfStates() + ")"));
-			targetSize = Brain.getMinNumOfStates();
-		}else if(targetSize > Brain.getMaxNumOfStates()){
-			Logger.log(new InformationLowEvent("Brain bred containing the " +
-				"maximum number of states (" + Brain.getMaxNumOfStates() + ")"));
-			targetSize = Brain.getMaxNumOfStates();
+	private List<Brain> screen(GameEngine gameEngine, List<Brain> brains) {
+		if(brains.isEmpty() || this.screenSeeds == 0 || this.promotePercent == 100){
+			return brains;
 		}
+		measure(gameEngine, brains, this.screenRounds, this.screenSeeds);
 		
-		Brain brainC = new Brain(targetSize);
-		ArrayList<State> statesC = new ArrayList<State>(brainC.values());
-		Set<Integer> keysA = brainA.keySet();
-		Set<Integer> keysB = brainB.keySet();
-		int i = 0;
+		//Sorted lowest fitness first, as the population is
+		List<Brain> screened = new ArrayList<Brain>(brains);
+		Collections.sort(screened);
+		int promote = Math.max(1, ((screened.size() * this.promotePercent) + 99) / 100);
+		List<Brain> promoted = new ArrayList<Brain>(
+			screened.subList(screened.size() - promote, screened.size()));
+		for(Brain brain : promoted){
+			brain.resetFitnesses();
+		}
+		return promoted;
+	}
+	
+	/**
+	 * Measures the Brains given in full, dropping any Brain which is clearly
+	 * in the bottom half of the population
+	 * @param gameEngine
+	 * @param brains
+	 * @param measured the Brains of the population measured in full before
+	 * @return the Brains dropped before being measured in full
+	 */
+	private List<Brain> race(GameEngine gameEngine, List<Brain> brains, List<Brain> measured) {
+		if(this.raceSeeds >= this.fullSeeds || brains.isEmpty() || !readFitnessWorld(gameEngine)){
+			measure(gameEngine, brains, this.fullRounds, this.fullSeeds);
+			return new ArrayList<Brain>();
+		}
+		return race(gameEngine, brains, measured, 2 * this.scoreLimit);
+	}
+	
+	/**
+	 * Measures the Brains given in full, each a seed at a time once it has
+	 * played raceSeeds seeds. As each Brain's games of a seed finish, it is
+	 * dropped if it is clearly in the bottom half of the population, or its
+	 * next seed is started, so no Brain waits for the games of another, and
+	 * every game is waited for once, at the end
+	 * @param gameEngine
+	 * @param brains
+	 * @param measured the Brains of the population measured in full before
+	 * @param range the difference between the highest and lowest score a
+	 * game can have
+	 * @return the Brains dropped before being measured in full
+	 */
+	List<Brain> race(GameEngine gameEngine, List<Brain> brains, List<Brain> measured, int range) {
+		//The bound on every Brain's mean is used after each seed from raceSeeds
+		//on, if each is wrong at most delta of the time, all of them together
+		//are wrong at most raceDelta of the time
+		double delta = this.raceDelta / (brains.size() * (this.fullSeeds - this.raceSeeds + 1));
+		
+		//The elite are compared by their mean score
+		List<Double> elite = new ArrayList<Double>();
+		for(Brain brain : measured){
+			elite.add(brain.getFitness() / (double) (2 * this.fullSeeds));
+		}
+		//Brains at least this many others are better than are never bred from
+		int better = this.population.length - (this.population.length / 2);
+		
+		//Scores and seeds of each Brain, written by this thread alone
+		int[] scores = new int[brains.size()];
+		int[] seeds = new int[brains.size()];
+		double[] means = new double[brains.size()];
+		//Brains which have not played raceSeeds seeds, or have been dropped,
+		//are not compared with the others
+		double[] widths = new double[brains.size()];
+		Arrays.fill(widths, Double.POSITIVE_INFINITY);
+		BlockingQueue<int[]> finished = new LinkedBlockingQueue<int[]>();
+		int running = 0;
+		for(int i = 0; i < brains.size(); i++){
+			for(int seed = 1; seed <= this.raceSeeds; seed++){
+				running += startSeed(gameEngine, brains.get(i), i, seed, finished);
+			}
+		}
 		
-		//Consider each state in statesA and statesB for inclusion in statesC
-		for(i = 0; i < targetSize; i++){
-			State stateA = null;
-			State stateB = null;
-			State stateC = null;
-			//Get state a, if any
-			if(keysA.contains(i)){
-				stateA = brainA.get(i);
+		List<Brain> dropped = new ArrayList<Brain>();
+		int saved = 0;
+		while(running > 0){
+			int[] seedScore;
+			try{
+				seedScore = finished.take();
+			}catch(InterruptedException e){
+				Logger.log(new ErrorEvent("GeneticAlgorithm interrupted while racing", e));
+				Thread.currentThread().interrupt();
+				break;
 			}
-			//Get state b, if any
-			if(keysB.contains(i)){
-				stateB = brainB.get(i);
+			running--;
+			int i = seedScore[0];
+			scores[i] += seedScore[1];
+			seeds[i]++;
+			if(seeds[i] < this.raceSeeds){
+				continue;
+			}
+			
+			means[i] = scores[i] / (double) (2 * seeds[i]);
+			widths[i] = getRaceWidth(range, 2 * seeds[i], delta);
+			if(seeds[i] == this.fullSeeds){
+				continue;
 			}
-			//Breed
-			if(stateA != null && stateB != null){
-				stateC = combineStates(i, stateA, stateB, targetSize, mutationConstant);
-			//Mutate A
-			}else if(stateA != null){
-				stateC = new State(i, mutateGenes(stateA.getGenes(), targetSize, mutationConstant));
-			//Mutate B
-			}else if(stateB != null){
-				stateC = new State(i, mutateGenes(stateB.getGenes(), targetSize, mutationConstant));
-			//New random state
+			if(isWorse(i, means, widths, elite, better)){
+				widths[i] = Double.POSITIVE_INFINITY;
+				dropped.add(brains.get(i));
+				saved += 2 * (this.fullSeeds - seeds[i]);
 			}else{
-				stateC = new State(statesC.size(), ranGenes(targetSize));
+				running += startSeed(gameEngine, brains.get(i), i, seeds[i] + 1, finished);
 			}
-			statesC.add(stateC);
 		}
+		gameEngine.awaitMatches();
 		
-		for(i = 0; i < statesC.size(); i++){
-			//Put new states into brain to be returned
-			State state = statesC.get(i);
-			brainC.put(state.getStateNum(), state);
+		if(!dropped.isEmpty()){
+			Logger.log(new InformationNormEvent("Racing dropped " + dropped.size() + "/"
+				+ brains.size() + " Brains, saving " + saved + " of "
+				+ (2 * this.fullSeeds * brains.size()) + " full games"));
 		}
-		return brainC;
+		return dropped;
 	}
 	
 	/**
+	 * Starts the games of a Brain in one seed, and adds its index and score
+	 * in them to finished once they are over
+	 * @param gameEngine
+	 * @param brain
 	 * @param index
-	 * @param sa
-	 * @param sb
-	 * @param states
-	 * @param mutationConstant
-	 * @return a state containing parts of A, B and new parts
-	 * @throws IllegalArgumentEvent 
+	 * @param seed
+	 * @param finished
+	 * @return the number of seeds started, 0 if the games could not be started
 	 */
-	private static State combineStates(int index, State sa, State sb,
-		int states, int mutationConstant) throws IllegalArgumentEvent {
-		int[] ga = sa.getGenes();
-		int[] gb = sb.getGenes();
-		int[] gc = new int[9];
-		
-		//Set command
-		if(ran.nextInt(2) == 0){
-			gc[0] = ga[0];
-		}else{
-			gc[0] = gb[0];
+	private int startSeed(GameEngine gameEngine, Brain brain, final int index, int seed,
+		final BlockingQueue<int[]> finished) {
+		try{
+			gameEngine.fitnessSeedStep(brain, this.goal, this.fullRounds, seed)
+				.thenAccept(new Consumer<Integer>() {
+					@Override
+					public void accept(Integer score) {
+						finished.add(new int[]{index, score});
+					}
+				});
+			return 1;
+		}catch(IllegalArgumentEvent e){
+			Logger.log(e);
+			return 0;
 		}
-		
-		//One of the 2 input states must have a value for field i,
-		//unless neither parent state has the MARKER condition, and the resulting state does
-		//Randomly choose a or b and try to get its value,
-		//if it has none, get the value of the other,
-		//this may still result in -1 for senseMarker if a state has SENSE and MARKER
-		int i = 0;
-		for(i = 1; i < 9; i++){
-			if(ran.nextInt(2) == 0){
-				if(ga[i] == -1){
-					gc[i] = gb[i];
-				}else{
-					gc[i] = ga[i];
-				}
-			}else{
-				if(gb[i] == -1){
-					gc[i] = ga[i];
-				}else{
-					gc[i] = gb[i];
-				}
+	}
+	
+	/**
+	 * @param range the difference between the highest and lowest score a
+	 * game can have
+	 * @param games the number of games played
+	 * @param delta the chance the bound is allowed to be wrong
+	 * @return the Hoeffding bound on how far the mean score of the games
+	 * can be from the mean score of every game that could be played
+	 */
+	static double getRaceWidth(int range, int games, double delta) {
+		return range * Math.sqrt(Math.log(2 / delta) / (2 * games));
+	}
+	
+	/**
+	 * @param i the index of the Brain to check
+	 * @param means the mean scores of the Brains being raced
+	 * @param widths the bound on how far each mean can be from its true
+	 * value, infinite for Brains not to compare with
+	 * @param elite the mean scores of the Brains already measured in full,
+	 * which are taken to be exact
+	 * @param better the number of Brains which must be better than a Brain
+	 * to drop it
+	 * @return true if at least better other Brains are certainly better
+	 * than the Brain checked
+	 */
+	static boolean isWorse(int i, double[] means, double[] widths, List<Double> elite, int better) {
+		double upper = means[i] + widths[i];
+		int count = 0;
+		for(double mean : elite){
+			if(mean > upper) count++;
+		}
+		for(int j = 0; j < means.length; j++){
+			if(j != i && means[j] - widths[j] > upper) count++;
+		}
+		return count >= better;
+	}
+	
+	/**
+	 * Plays the fitness games of every Brain given at once, and waits for them
+	 * @param gameEngine
+	 * @param brains
+	 * @param rounds
+	 * @param seeds
+	 */
+	private void measure(GameEngine gameEngine, List<Brain> brains, int rounds, int seeds) {
+		for(Brain brain : brains){
+			try {
+				gameEngine.fitnessContestStep(brain, this.goal, rounds, seeds);
+			} catch (IllegalArgumentEvent e) {
+				Logger.log(e);
 			}
 		}
-		
-		//If neither of the parent states has SENSE......MARKER...[senseMarker]
-		//the senseMarker value for both will be -1, and the child will be given this value
-		//this is not a legal value and must be replaced with a new random value
-		//This is performed by the mutateGenes method
-		
-		gc = mutateGenes(gc, states, mutationConstant);
-		
-		return new State(index, gc);
+		gameEngine.awaitMatches();
 	}
 	
 	/**
-	 * @param gc
-	 * @param states
-	 * @param mutationConstant
-	 * @return
-	 * @throws IllegalArgumentEvent 
+	 * Logs the Ant steps saved by screening, compared to measuring every
+	 * new Brain in full
+	 * @param gameEngine
+	 * @param screened
+	 * @param promoted
 	 */
-	private static int[] mutateGenes(int[] gc, int states, int mutationConstant) throws IllegalArgumentEvent {
-		//All data is discrete, not continuous,
-		//so adding or subtracting a small amount is meaningless
-		//Rather, select a completely new value, independent from the old value
-		//for each gene: (1 / mutationConstant) of the time, a random value is chosen
-		//mutationConstant is proportional to the likelihood that a gene will not be altered
-
-		int[] values = State.getValues(states);
-		
-		//Changing the entire command is 10 times less likely than changing a parameter
-		//The value 10 is arbitrary
-		//This is not evolution as it does not use any of the genes
-		//present in either of the parents
-		int i = 0;
-		if(ran.nextInt(mutationConstant * 10) == 0){
-			return ranGenes(states);
-		}
-		for(i = 1; i < 9; i++){
-			if(ran.nextInt(mutationConstant) == 0){
-				//Sometimes replace value with a new random value
-				if(i == 4){
-					//P < 2 makes no sense (ran.nextInt(<= 1))
-					gc[i] = ran.nextInt(values[i] - 2) + 2;
-				}else{
-					gc[i] = ran.nextInt(values[i]);
+	private void logScreening(GameEngine gameEngine, int screened, int promoted) {
+		if(screened == promoted || !readFitnessWorld(gameEngine)){
+			return;
+		}
+		long fullSteps = 2L * this.fullSeeds * this.fullRounds * this.fitnessAnts;
+		long screenSteps = 2L * this.screenSeeds * this.screenRounds * this.fitnessAnts;
+		long saved = (fullSteps * (screened - promoted)) - (screenSteps * screened);
+		Logger.log(new InformationNormEvent("Screening promoted " + promoted + "/" + screened
+			+ " new Brains, saving " + saved + " Ant steps ("
+			+ ((saved * 100) / (fullSteps * screened)) + "%)"));
+	}
+	
+	/**
+	 * Reads the number of Ants and the most a score can be from 0 from a
+	 * fitness World, if not read before
+	 * @param gameEngine
+	 * @return false if no fitness World could be taken
+	 */
+	private boolean readFitnessWorld(GameEngine gameEngine) {
+		if(this.fitnessAnts >= 0){
+			return true;
+		}
+		World world;
+		try{
+			world = gameEngine.getWorldPool().take(1);
+		}catch(ErrorEvent e){
+			Logger.log(e);
+			return false;
+		}
+		Ant[][] ants = world.getAntsBySpecies();
+		if(this.instance == 0){
+			//Kills, the difference between the Ants left of each species
+			this.scoreLimit = ants[0].length;
+		}else{
+			//Food, the difference between the food in the anthills, which is
+			//at most the food in the World, and the 3 food every Ant leaves
+			int food = 0;
+			for(Cell[] row : world.getCells()){
+				for(Cell cell : row){
+					food += cell.foodCount();
 				}
 			}
+			this.scoreLimit = food + (3 * world.getAnts().length);
 		}
-		
-		//Get new value for senseMarker
-		//if SENSE and MARKER and senseMarker is -1
-		if(gc[0] == 0 && gc[7] == 6 && gc[8] == -1){
-			gc[8] = ran.nextInt(State.getValue(states, 8));
-		}
-		
-		return gc;
+		this.fitnessAnts = world.getAnts().length;
+		gameEngine.getWorldPool().release(world);
+		return true;
 	}
 	
 	/**
+	 * Makes a Genome for every parent and child, if the last epoch's
+	 * Genomes do not fit
 	 * @param states
-	 * @return genes as used by a state, but with logical random values
 	 * @throws IllegalArgumentEvent 
 	 */
-	private static int[] ranGenes(int states) throws IllegalArgumentEvent {
-		int[] values = State.getValues(states);
-		int[] gc = new int[9];
-		int i = 0;
-		
-		for(i = 0; i < 9; i++){
-			//Generate a new random value
-			if(i == 4){
-				//P < 2 makes no sense
-				gc[i] = ran.nextInt(values[i] - 2) + 2;
-			}else{
-				gc[i] = ran.nextInt(values[i]);
-			}
+	private void prepareGenomes(int states) throws IllegalArgumentEvent {
+		if(this.parents != null && this.parents.length == this.popLen
+			&& this.parents[0].getStates() == states){
+			return;
 		}
-		
-		//Every index in gc now has a possible value,
-		//however, this does not matter, as values which do not apply to the
-		//generated command value (g[0]) will not be used in the State constructor
-		//This is inefficient as some values are generated needlessly,
-		//however, increasing efficiency would require drastically more code,
-		//and switch/case statements, which would be more prone to errors
-		
-		return gc;
+		this.parents = new Genome[this.popLen];
+		this.children = new Genome[this.popLen];
+		this.streams = new SplittableRandom[this.popLen];
+		for(int i = 0; i < this.popLen; i++){
+			this.parents[i] = new Genome(states);
+			this.children[i] = new Genome(states);
+		}
+	}
+	
+	/**
+	 * @return the number of States of a bred Brain
+	 */
+	private static int getChildSize() {
+		//The target Brain should contain a sensible number of states,
+		//it is not necessary for its size to change in the same direction on every breed
+		//The size of the brain resulting from evolution will reflect on the
+		//size which provides the best fitness
+		//i.e. size, in itself, is not inherently good
+		//Can't grow or shrink brains, which is bad
+		//Numbering of states, and their pointers are fixed,
+		//so reducing the size by removing a state would be a real pain,
+		//as changing every pointer would be inefficient,
+		//and leaving gaps might break some methods
+		int targetSize = 50;//Math.max(brainA.size(), brainB.size()) + ran.nextInt(2);
+		//Keep targetSize within limits
+		if(targetSize < Brain.getMinNumOfStates()){
+			Logger.log(new InformationLowEvent("Brain bred containing the " +
+				"minimum number of states (" + Brain.getMinNumOfStates() + ")"));
+			targetSize = Brain.getMinNumOfStates();
+		}else if(targetSize > Brain.getMaxNumOfStates()){
+			Logger.log(new InformationLowEvent("Brain bred containing the " +
+				"maximum number of states (" + Brain.getMaxNumOfStates() + ")"));
+			targetSize = Brain.getMaxNumOfStates();
+		}
+		return targetSize;
 	}
 	
 	/**
@@ -524,7 +974,7 @@ public class GeneticAlgorithm implements Serializable {
 	 * @param toRetain the number of .ser files to not delete
 	 */
 	public void clearSaves(int toRetain) {
-		File folder = new File(subFolderPathPrefix + this.instance + "_(" + this.goal + ")");
+		File folder = new File(getSaveFolder());
 		//Get all .ser files in this GA's save folder
 		File[] files = folder.listFiles(new SerFilter());
 		if(files == null) return;
@@ -547,7 +997,7 @@ public class GeneticAlgorithm implements Serializable {
 		if(!superFolder.exists()) superFolder.mkdir();
 		
 		//Setup save subFolder
-		String subFolderPath = subFolderPathPrefix + this.instance + "_(" + this.goal + ")";
+		String subFolderPath = getSaveFolder();
 		File subFolder = new File(subFolderPath);
 		subFolder.mkdir();
 		
@@ -572,14 +1022,14 @@ public class GeneticAlgorithm implements Serializable {
 		//Write best brain so far to file
 		Brain b = this.population[this.popLen - 1].clone();
 		try{
-			BrainParser.writeBrainTo(b, "ga_result_full_" + this.instance + "_(" + this.goal + ")");
+			BrainParser.writeBrainTo(b, "ga_result_full_" + this.name);
 		}catch(IOEvent e){
 			Logger.log(e);
 		}
 		try{
 			b.trim();
 			try{
-				BrainParser.writeBrainTo(b, "ga_result_" + this.instance + "_(" + this.goal + ")");
+				BrainParser.writeBrainTo(b, "ga_result_" + this.name);
 			}catch(IOEvent e){
 				Logger.log(e);
 			}
@@ -599,7 +1049,7 @@ public class GeneticAlgorithm implements Serializable {
 		int max = Integer.MIN_VALUE;
 		int num;
 		String filePath;
-		String subFolderPath = subFolderPathPrefix + this.instance + "_(" + this.goal + ")";
+		String subFolderPath = getSaveFolder();
 		File folder = new File(subFolderPath);
 		
 		//Get file ending in highest number
@@ -0,0 +1,211 @@
+package antBrain;
+
+import static org.junit.Assert.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import org.junit.Test;
+import utilities.IOEvent;
+import utilities.IllegalArgumentEvent;
+import engine.GameEngine;
+
+public class GeneticAlgorithmTest {
+	
+	@Test
+	public void testRaceWidth(){
+		//Wider for a wider range, a smaller delta, and fewer games
+		double width = GeneticAlgorithm.getRaceWidth(200, 20, 0.05);
+		assertEquals(200 * Math.sqrt(Math.log(2 / 0.05) / 40), width, 1e-9);
+		assertTrue(GeneticAlgorithm.getRaceWidth(400, 20, 0.05) > width);
+		assertTrue(GeneticAlgorithm.getRaceWidth(200, 20, 0.01) > width);
+		assertTrue(GeneticAlgorithm.getRaceWidth(200, 10, 0.05) > width);
+	}
+	
+	@Test
+	public void testRaceSeparates(){
+		//2 Brains, each checked once, scores between -100 and 100
+		double width = GeneticAlgorithm.getRaceWidth(200, 20, 0.05 / 2);
+		double[] widths = {width, width};
+		List<Double> elite = new ArrayList<Double>();
+		
+		//Clearly different Brains are separated, the worse is dropped
+		double[] means = {90, -90};
+		assertFalse(GeneticAlgorithm.isWorse(0, means, widths, elite, 1));
+		assertTrue(GeneticAlgorithm.isWorse(1, means, widths, elite, 1));
+		
+		//Nearly equal Brains are both kept
+		means = new double[]{10, 0};
+		assertFalse(GeneticAlgorithm.isWorse(0, means, widths, elite, 1));
+		assertFalse(GeneticAlgorithm.isWorse(1, means, widths, elite, 1));
+		
+		//Brains not yet compared are not counted
+		means = new double[]{90, -90};
+		widths = new double[]{Double.POSITIVE_INFINITY, width};
+		assertFalse(GeneticAlgorithm.isWorse(1, means, widths, elite, 1));
+		
+		//The elite are compared by their means alone
+		elite.add(90.0);
+		widths = new double[]{width};
+		assertTrue(GeneticAlgorithm.isWorse(0, new double[]{-90}, widths, elite, 1));
+		assertFalse(GeneticAlgorithm.isWorse(0, new double[]{80}, widths, elite, 1));
+	}
+	
+	@Test
+	public void testRaceDropsWorse(){
+		Brain example = null;
+		try{
+			example = BrainParser.readBrainFrom("example");
+		} catch (IOEvent e) {
+			fail(e.getMessage());
+		} catch (IllegalArgumentEvent e) {
+			fail(e.getMessage());
+		}
+		//3 Brains score 100 in every game, one scores -100
+		Brain[] population = new Brain[4];
+		ScoreEngine gameEngine = new ScoreEngine();
+		for(int i = 0; i < population.length; i++){
+			population[i] = new Brain(example);
+			gameEngine.scores.put(population[i], i == 3 ? -100 : 100);
+		}
+		
+		GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm("food");
+		try{
+			geneticAlgorithm.setRacing(3, 0.05);
+			geneticAlgorithm.setPopulation(population);
+			List<Brain> dropped = geneticAlgorithm.race(gameEngine,
+				Arrays.asList(population), new ArrayList<Brain>(), 200);
+			
+			//The worse Brain is dropped before playing every seed,
+			//the others are measured in full
+			assertEquals(1, dropped.size());
+			assertSame(population[3], dropped.get(0));
+			assertTrue(gameEngine.seeds.get(population[3]) < GameEngine.fitnessSeeds);
+			for(int i = 0; i < 3; i++){
+				assertEquals(GameEngine.fitnessSeeds, (int) gameEngine.seeds.get(population[i]));
+			}
+		} catch (IllegalArgumentEvent e) {
+			fail(e.getMessage());
+		} finally {
+			gameEngine.shutdown();
+		}
+	}
+	
+	@Test
+	public void testScreening(){
+		Brain example = null;
+		try{
+			example = BrainParser.readBrainFrom("example");
+		} catch (IOEvent e) {
+			fail(e.getMessage());
+		} catch (IllegalArgumentEvent e) {
+			fail(e.getMessage());
+		}
+		//2 elite Brains, kept from the last epoch, then 8 new Brains, the
+		//better a new Brain screens, the worse it is measured in full, so
+		//every Brain screened out has a higher partial fitness than any
+		//Brain measured in full
+		Brain[] population = new Brain[10];
+		ScoreEngine gameEngine = new ScoreEngine();
+		for(int i = 0; i < population.length; i++){
+			population[i] = new Brain(example);
+			if(i < 2){
+				population[i].setFitness(-1000 - i);
+			}else{
+				gameEngine.screenScores.put(population[i], 100 * i);
+				gameEngine.scores.put(population[i], -i);
+			}
+		}
+		List<Brain> elite = Arrays.asList(population[0], population[1]);
+		List<Brain> promoted = Arrays.asList(population[6], population[7],
+			population[8], population[9]);
+		List<Brain> screenedOut = Arrays.asList(population[2], population[3],
+			population[4], population[5]);
+		
+		GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm("food");
+		try{
+			geneticAlgorithm.setScreening(100, 2, 50);
+			geneticAlgorithm.setPopulation(population.clone());
+			geneticAlgorithm.rank(gameEngine, example);
+		} catch (IllegalArgumentEvent e) {
+			fail(e.getMessage());
+		} finally {
+			gameEngine.shutdown();
+		}
+		
+		//Every new Brain is screened, only the best half is measured in full,
+		//the elite are neither
+		for(int i = 0; i < population.length; i++){
+			assertEquals(i >= 2, gameEngine.screened.contains(population[i]));
+			assertEquals(i >= 6, gameEngine.measured.contains(population[i]));
+		}
+		
+		//The Brains screened out are ranked below every Brain measured in full,
+		//and the elite, whatever their partial fitnesses, and are reset
+		Brain[] ranked = geneticAlgorithm.getPopulation();
+		for(int i = 0; i < ranked.length; i++){
+			boolean out = false;
+			for(Brain brain : screenedOut){
+				if(ranked[i] == brain) out = true;
+			}
+			assertEquals(i < screenedOut.size(), out);
+		}
+		for(Brain brain : screenedOut){
+			assertEquals(0, brain.getFitness());
+		}
+		
+		//The elite and the promoted Brains keep their fitnesses, in order
+		for(Brain brain : elite){
+			assertTrue(brain.getFitness() < 0);
+		}
+		for(Brain brain : promoted){
+			assertEquals(2 * GameEngine.fitnessSeeds * gameEngine.scores.get(brain),
+				brain.getFitness());
+		}
+		for(int i = screenedOut.size() + 1; i < ranked.length; i++){
+			assertTrue(ranked[i - 1].getFitness() <= ranked[i].getFitness());
+		}
+	}
+	
+	//Scores each Brain the same in every game, without playing them
+	private static class ScoreEngine extends GameEngine {
+		private final Map<Brain, Integer> scores = new IdentityHashMap<Brain, Integer>();
+		private final Map<Brain, Integer> screenScores = new IdentityHashMap<Brain, Integer>();
+		//The number of seeds each Brain has played
+		private final Map<Brain, Integer> seeds = new IdentityHashMap<Brain, Integer>();
+		//The Brains screened, and measured in full, by fitnessContestStep()
+		private final Set<Brain> screened = Collections.newSetFromMap(new IdentityHashMap<Brain, Boolean>());
+		private final Set<Brain> measured = Collections.newSetFromMap(new IdentityHashMap<Brain, Boolean>());
+		
+		private ScoreEngine(){
+			super(1);
+		}
+		
+		@Override
+		public CompletableFuture<Integer> fitnessSeedStep(Brain brain, String goal,
+			int rounds, int seed){
+			Integer played = this.seeds.get(brain);
+			this.seeds.put(brain, played == null ? 1 : played + 1);
+			return CompletableFuture.completedFuture(2 * this.scores.get(brain));
+		}
+		
+		@Override
+		public void fitnessContestStep(Brain brain, String goal, int rounds, int seeds){
+			int score;
+			if(rounds < GameEngine.rounds){
+				this.screened.add(brain);
+				score = this.screenScores.get(brain);
+			}else{
+				this.measured.add(brain);
+				score = this.scores.get(brain);
+			}
+			for(int i = 0; i < 2 * seeds; i++){
+				brain.setFitness(i, score);
+			}
+		}
+	}
+}
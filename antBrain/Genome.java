@@ -0,0 +1,233 @@
+package antBrain;
+
+import java.util.SplittableRandom;
+
+import utilities.IllegalArgumentEvent;
+
+/**
+ *  Genome
+ *  holds the genes of every State of a Brain in one array, 9 ints per
+ * State, in the order given by State.getGenes(), so Brains can be bred by
+ * the GeneticAlgorithm without making an object for every State or gene.
+ * A Genome is made once and reused, reading a new parent with read(), or
+ * being bred into with breed(), and is only made into a Brain, with
+ * toBrain(), once the child is needed.
+ *
+ * @author pkew20 / 57116
+ * @version 1.0
+ */
+public final class Genome {
+	public static final int genesPerState = 9;
+	//Command of a State missing from the Brain
+	private static final int missing = -1;
+	private final int states;
+	private final int[] genes;
+	//Number of values of each gene, as State.getValues(states)
+	private final int[] values;
+	
+	/**
+	 *  Genome
+	 *  to construct a Genome with room for the number of States given,
+	 * all of them missing
+	 * @param states the number of States, which st1 and st2 of new genes
+	 * point to
+	 * @throws IllegalArgumentEvent if states is not a legal Brain size
+	 */
+	public Genome(int states) throws IllegalArgumentEvent {
+		this.states = states;
+		this.genes = new int[states * genesPerState];
+		this.values = State.getValues(states);
+		for(int state = 0; state < states; state++){
+			this.genes[state * genesPerState] = missing;
+		}
+	}
+	
+	/**
+	 *  getStates
+	 *  to get the number of States this Genome has room for
+	 * @return the number of States
+	 */
+	public int getStates() {
+		return this.states;
+	}
+	
+	/**
+	 *  hasState
+	 *  to check whether a State is in this Genome
+	 * @param state the number of the State
+	 * @return false if the State is missing
+	 */
+	public boolean hasState(int state) {
+		return this.genes[state * genesPerState] != missing;
+	}
+	
+	/**
+	 *  getGene
+	 *  to get one gene of one State
+	 * @param state the number of the State
+	 * @param gene the index of the gene, as in State.getGenes()
+	 * @return the value of the gene
+	 */
+	public int getGene(int state, int gene) {
+		return this.genes[(state * genesPerState) + gene];
+	}
+	
+	/**
+	 *  read
+	 *  to overwrite this Genome with the genes of the States of a Brain,
+	 * States numbered beyond the size of this Genome are left out
+	 * @param brain the Brain to read
+	 */
+	public void read(Brain brain) {
+		State state;
+		for(int i = 0; i < this.states; i++){
+			state = brain.get(i);
+			if(state == null){
+				this.genes[i * genesPerState] = missing;
+			}else{
+				state.getGenes(this.genes, i * genesPerState);
+			}
+		}
+	}
+	
+	/**
+	 *  toBrain
+	 *  to make a new Brain holding the States of this Genome
+	 * @return the Brain, with a State for every State in this Genome
+	 * @throws IllegalArgumentEvent if a State has genes outside their range
+	 */
+	public Brain toBrain() throws IllegalArgumentEvent {
+		Brain brain = new Brain(this.states);
+		for(int i = 0; i < this.states; i++){
+			if(hasState(i)){
+				brain.put(i, new State(i, this.genes, i * genesPerState));
+			}
+		}
+		return brain;
+	}
+	
+	/**
+	 *  breed
+	 *  to overwrite this Genome with a child of two others, each State is
+	 * a combination of the States of both parents, or a mutation of the State
+	 * of the parent which has one, or entirely random if neither has one.
+	 * Nothing is allocated, so a whole generation can be bred into Genomes
+	 * made beforehand
+	 * @param a the first parent, at least the size of this Genome
+	 * @param b the second parent, at least the size of this Genome
+	 * @param mutationConstant the inverse of the chance of altering any gene
+	 * @param ran the random numbers to breed with
+	 */
+	public void breed(Genome a, Genome b, int mutationConstant, SplittableRandom ran) {
+		int offset;
+		for(int i = 0; i < this.states; i++){
+			offset = i * genesPerState;
+			if(a.hasState(i) && b.hasState(i)){
+				combine(offset, a.genes, b.genes, mutationConstant, ran);
+			}else if(a.hasState(i)){
+				System.arraycopy(a.genes, offset, this.genes, offset, genesPerState);
+				mutate(offset, mutationConstant, ran);
+			}else if(b.hasState(i)){
+				System.arraycopy(b.genes, offset, this.genes, offset, genesPerState);
+				mutate(offset, mutationConstant, ran);
+			}else{
+				randomise(offset, ran);
+			}
+		}
+	}
+	
+	/**
+	 * Sets the State at offset to parts of the States of a and b, then
+	 * mutates it
+	 * @param offset
+	 * @param a
+	 * @param b
+	 * @param mutationConstant
+	 * @param ran
+	 */
+	private void combine(int offset, int[] a, int[] b, int mutationConstant, SplittableRandom ran) {
+		//Set command
+		if(ran.nextInt(2) == 0){
+			this.genes[offset] = a[offset];
+		}else{
+			this.genes[offset] = b[offset];
+		}
+		
+		//One of the 2 input states must have a value for field i,
+		//unless neither parent state has the MARKER condition, and the resulting state does
+		//Randomly choose a or b and try to get its value,
+		//if it has none, get the value of the other,
+		//this may still result in -1 for senseMarker if a state has SENSE and MARKER
+		for(int i = offset + 1; i < offset + genesPerState; i++){
+			if(ran.nextInt(2) == 0){
+				this.genes[i] = a[i] == -1 ? b[i] : a[i];
+			}else{
+				this.genes[i] = b[i] == -1 ? a[i] : b[i];
+			}
+		}
+		
+		//If neither of the parent states has SENSE......MARKER...[senseMarker]
+		//the senseMarker value for both will be -1, and the child will be given this value
+		//this is not a legal value and must be replaced with a new random value
+		//This is performed by mutate
+		mutate(offset, mutationConstant, ran);
+	}
+	
+	/**
+	 * Replaces each gene of the State at offset with a random value
+	 * 1 / mutationConstant of the time
+	 * @param offset
+	 * @param mutationConstant
+	 * @param ran
+	 */
+	private void mutate(int offset, int mutationConstant, SplittableRandom ran) {
+		//All data is discrete, not continuous,
+		//so adding or subtracting a small amount is meaningless
+		//Rather, select a completely new value, independent from the old value
+		
+		//Changing the entire command is 10 times less likely than changing a parameter
+		//The value 10 is arbitrary
+		//This is not evolution as it does not use any of the genes
+		//present in either of the parents
+		if(ran.nextInt(mutationConstant * 10) == 0){
+			randomise(offset, ran);
+			return;
+		}
+		for(int i = 1; i < genesPerState; i++){
+			if(ran.nextInt(mutationConstant) == 0){
+				this.genes[offset + i] = randomGene(i, ran);
+			}
+		}
+		
+		//Get new value for senseMarker
+		//if SENSE and MARKER and senseMarker is -1
+		if(this.genes[offset] == 0 && this.genes[offset + 7] == 6 && this.genes[offset + 8] == -1){
+			this.genes[offset + 8] = ran.nextInt(this.values[8]);
+		}
+	}
+	
+	/**
+	 * Sets every gene of the State at offset to a random value, values which
+	 * do not apply to the command are not used by the State made from them
+	 * @param offset
+	 * @param ran
+	 */
+	private void randomise(int offset, SplittableRandom ran) {
+		for(int i = 0; i < genesPerState; i++){
+			this.genes[offset + i] = randomGene(i, ran);
+		}
+	}
+	
+	/**
+	 * @param gene
+	 * @param ran
+	 * @return a random legal value for the gene
+	 */
+	private int randomGene(int gene, SplittableRandom ran) {
+		if(gene == 4){
+			//P < 2 makes no sense (ran.nextInt(<= 1))
+			return ran.nextInt(this.values[4] - 2) + 2;
+		}
+		return ran.nextInt(this.values[gene]);
+	}
+}
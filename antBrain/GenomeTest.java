@@ -0,0 +1,92 @@
+package antBrain;
+
+import static org.junit.Assert.*;
+import java.util.SplittableRandom;
+import org.junit.Test;
+import utilities.IOEvent;
+import utilities.IllegalArgumentEvent;
+
+public class GenomeTest {
+	
+	@Test
+	public void testReadToBrain(){
+		try{
+			Brain testBrain = BrainParser.readBrainFrom("example");
+			Genome genome = new Genome(testBrain.size());
+			genome.read(testBrain);
+			assertEquals(testBrain.toString(), genome.toBrain().toString());
+		} catch (IOEvent e) {
+			fail(e.getMessage());
+		} catch (IllegalArgumentEvent e) {
+			fail(e.getMessage());
+		}
+	}
+	
+	@Test
+	public void testBreed(){
+		try{
+			Genome a = new Genome(50);
+			Genome b = new Genome(50);
+			Genome child = new Genome(50);
+			a.read(BrainParser.readBrainFrom("example"));
+			b.read(BrainParser.readBrainFrom("better_example"));
+			SplittableRandom rand = new SplittableRandom(1);
+			for(int i = 0; i < 100; i++){
+				child.breed(a, b, 1 + rand.nextInt(20), rand);
+				//Every State must be present and legal
+				Brain brain = child.toBrain();
+				assertEquals(50, brain.size());
+				a.read(brain);
+			}
+		} catch (IOEvent e) {
+			fail(e.getMessage());
+		} catch (IllegalArgumentEvent e) {
+			fail(e.getMessage());
+		}
+	}
+	
+	@Test
+	public void testBreedThreads(){
+		String[] names = {"example", "better_example", "sample", "surround",
+			"baxters_brain_1", "frictionless_bananas_1"};
+		Brain[] population = new Brain[12];
+		try{
+			for(int i = 0; i < population.length; i++){
+				population[i] = BrainParser.readBrainFrom(names[i % names.length]);
+			}
+		} catch (IOEvent e) {
+			fail(e.getMessage());
+		} catch (IllegalArgumentEvent e) {
+			fail(e.getMessage());
+		}
+		
+		GeneticAlgorithm one = new GeneticAlgorithm("food");
+		GeneticAlgorithm many = new GeneticAlgorithm("food");
+		try{
+			one.setSeed(7);
+			many.setSeed(7);
+			one.setBreedThreads(1);
+			many.setBreedThreads(4);
+			one.setPopulation(population.clone());
+			many.setPopulation(population.clone());
+			//The same seed must breed the same children, in the same order, on
+			//any number of threads, epoch after epoch
+			for(int epoch = 0; epoch < 3; epoch++){
+				Brain[] oneChildren = one.breed(2, 10);
+				Brain[] manyChildren = many.breed(2, 10);
+				assertEquals(population.length, oneChildren.length);
+				assertEquals(population.length, manyChildren.length);
+				for(int i = 0; i < population.length; i++){
+					assertEquals(oneChildren[i].toString(), manyChildren[i].toString());
+				}
+				one.setPopulation(oneChildren);
+				many.setPopulation(manyChildren);
+			}
+		} catch (IllegalArgumentEvent e) {
+			fail(e.getMessage());
+		} finally {
+			one.stopBreeding();
+			many.stopBreeding();
+		}
+	}
+}
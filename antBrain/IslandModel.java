@@ -0,0 +1,259 @@
+package antBrain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import utilities.ErrorEvent;
+import utilities.IllegalArgumentEvent;
+import utilities.InformationHighEvent;
+import utilities.InformationLowEvent;
+import utilities.Logger;
+
+import engine.GameEngine;
+
+/**
+ *  IslandModel
+ *  to evolve several populations of Brains at once, each an island with its
+ * own GeneticAlgorithm, GameEngine and share of the processors, so the
+ * populations are measured side by side, and each searches its own part of
+ * the search space, rather than the whole population becoming stuck in the
+ * same local optimum.
+ *
+ * Every few epochs, each island sends copies of its best Brains to the
+ * islands next to it in the topology, and takes the Brains sent to it in
+ * place of some of its children. Brains are sent through lock free
+ * mailboxes, so no island ever waits for another, Brains which arrive late
+ * are taken at the next migration. Each island is saved, and can be
+ * resumed, on its own, see GeneticAlgorithm(String, int).
+ *
+ * @author pkew20 / 57116
+ * @version 1.0
+ */
+public class IslandModel {
+	/**
+	 * The islands each island sends its best Brains to
+	 */
+	public enum Topology {
+		//The next island, the last island sends to the first
+		RING,
+		//Every other island
+		FULLY_CONNECTED
+	}
+	
+	private static final int processors = Runtime.getRuntime().availableProcessors();
+	private static final Brain[] none = new Brain[0];
+	
+	private final Topology topology;
+	//Brains migrate every interval epochs, migrants to each neighbour
+	private final int interval;
+	private final int migrants;
+	private final GeneticAlgorithm[] islands;
+	//Brains sent to each island and not yet taken by it
+	private final List<ConcurrentLinkedQueue<Brain>> mailboxes;
+	
+	/**
+	 *  IslandModel
+	 *  to construct an IslandModel, with a GeneticAlgorithm for each island
+	 * @param goal the measure of fitness of the Brains in the populations
+	 * @param islands the number of islands
+	 * @param topology the islands each island sends Brains to
+	 * @param interval the number of epochs between migrations
+	 * @param migrants the number of the best Brains each island sends to
+	 * each of its neighbours
+	 * @throws IllegalArgumentEvent if a value is out of range
+	 */
+	public IslandModel(String goal, int islands, Topology topology,
+		int interval, int migrants) throws IllegalArgumentEvent {
+		if(islands < 1 || topology == null || interval < 1 || migrants < 0){
+			throw new IllegalArgumentEvent("Illegal IslandModel: " + islands
+				+ " islands, " + topology + " topology, " + migrants
+				+ " Brains migrating every " + interval + " epochs");
+		}
+		this.topology = topology;
+		this.interval = interval;
+		this.migrants = migrants;
+		this.islands = new GeneticAlgorithm[islands];
+		this.mailboxes = new ArrayList<ConcurrentLinkedQueue<Brain>>(islands);
+		for(int i = 0; i < islands; i++){
+			final int island = i;
+			this.islands[i] = new GeneticAlgorithm(goal, i);
+			this.islands[i].setMigration(new Migration() {
+				@Override
+				public Brain[] migrate(int epoch, Brain[] population) {
+					return IslandModel.this.migrate(island, epoch, population);
+				}
+			});
+			this.mailboxes.add(new ConcurrentLinkedQueue<Brain>());
+		}
+	}
+	
+	/**
+	 *  getIslands
+	 *  to get the number of islands
+	 * @return the number of islands
+	 */
+	public int getIslands() {
+		return this.islands.length;
+	}
+	
+	/**
+	 *  getIsland
+	 *  to get the GeneticAlgorithm of an island, e.g. to set how it
+	 * measures fitness, before getBestBrain() is called
+	 * @param island the number of the island
+	 * @return the GeneticAlgorithm of the island
+	 */
+	public GeneticAlgorithm getIsland(int island) {
+		return this.islands[island];
+	}
+	
+	/**
+	 *  setSeed
+	 *  to seed every island, each with a different seed drawn from the one
+	 * given, so breeding can be repeated
+	 * @param seed the seed
+	 */
+	public void setSeed(long seed) {
+		SplittableRandom ran = new SplittableRandom(seed);
+		for(GeneticAlgorithm island : this.islands){
+			island.setSeed(ran.nextLong());
+		}
+	}
+	
+	/**
+	 *  getBestBrain
+	 *  to evolve every island on its own thread, with its own GameEngine
+	 * and breeding threads, sharing the processors equally, and to return the
+	 * Brain with the highest fitness on any island once all have finished
+	 * @param startBrain if an island needs a new population, it is filled
+	 * with copies of this Brain
+	 * @param absoluteTrainingBrain the Brain the fitness of the Brains in the
+	 * populations is measured against
+	 * @param epochs the number of iterations to run evolve for
+	 * @param popLen the number of Brains in the population of each island
+	 * @param elite the number of the highest fitness Brains each island
+	 * retains across epochs
+	 * @param mutationRate the chance of altering any part of any command in any
+	 * brain
+	 * @return the Brain with the highest fitness of all the islands, null if
+	 * no island finished
+	 */
+	public Brain getBestBrain(Brain startBrain, Brain absoluteTrainingBrain,
+		final int epochs, final int popLen, final int elite, final int mutationRate) {
+		final int threads = Math.max(1, processors / this.islands.length);
+		final Brain[] best = new Brain[this.islands.length];
+		Thread[] workers = new Thread[this.islands.length];
+		Logger.log(new InformationHighEvent("Began IslandModel evolution on "
+			+ this.islands.length + " islands, " + threads + " threads each, "
+			+ this.topology + " topology, " + this.migrants
+			+ " Brains migrating every " + this.interval + " epochs"));
+		
+		for(int i = 0; i < this.islands.length; i++){
+			final int island = i;
+			final GeneticAlgorithm geneticAlgorithm = this.islands[i];
+			//Islands must not share Brains, the fitness and results of the
+			//same Brain would be set by several threads
+			final Brain islandStartBrain = new Brain(startBrain);
+			final Brain islandTrainingBrain = new Brain(absoluteTrainingBrain);
+			try{
+				geneticAlgorithm.setBreedThreads(threads);
+			}catch(IllegalArgumentEvent e){
+				Logger.log(e);
+			}
+			workers[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					GameEngine gameEngine = new GameEngine(threads);
+					gameEngine.setHeadless(true);
+					try{
+						best[island] = geneticAlgorithm.getBestBrain(gameEngine,
+							islandStartBrain, islandTrainingBrain, epochs, popLen,
+							elite, mutationRate);
+					}catch(RuntimeException e){
+						Logger.log(new ErrorEvent("Island " + island
+							+ " of IslandModel failed: " + e, e));
+					}finally{
+						gameEngine.shutdown();
+					}
+				}
+			}, "Island " + i);
+			workers[i].start();
+		}
+		
+		for(Thread worker : workers){
+			try{
+				worker.join();
+			}catch(InterruptedException e){
+				Logger.log(new ErrorEvent("IslandModel interrupted", e));
+				Thread.currentThread().interrupt();
+				return null;
+			}
+		}
+		
+		int index = -1;
+		for(int i = 0; i < best.length; i++){
+			if(best[i] != null && (index < 0 || best[i].getFitness() > best[index].getFitness())){
+				index = i;
+			}
+		}
+		if(index < 0){
+			return null;
+		}
+		Logger.log(new InformationHighEvent("Completed IslandModel evolution, best Brain "
+			+ "from island " + index + ", with fitness " + best[index].getFitness()));
+		return best[index];
+	}
+	
+	/**
+	 * Sends copies of the best Brains of an island's population to its
+	 * neighbours, and takes up to as many Brains as one migration sends to it
+	 * @param island
+	 * @param epoch
+	 * @param population
+	 * @return the Brains taken
+	 */
+	Brain[] migrate(int island, int epoch, Brain[] population) {
+		if(epoch % this.interval != 0 || this.migrants == 0 || this.islands.length < 2){
+			return none;
+		}
+		int[] neighbours = getNeighbours(island);
+		int sent = Math.min(this.migrants, population.length);
+		for(int neighbour : neighbours){
+			for(int i = 1; i <= sent; i++){
+				//A copy with no fitness, as every island measures its own Brains
+				this.mailboxes.get(neighbour).offer(new Brain(population[population.length - i]));
+			}
+		}
+		
+		ConcurrentLinkedQueue<Brain> mailbox = this.mailboxes.get(island);
+		List<Brain> immigrants = new ArrayList<Brain>();
+		Brain immigrant;
+		while(immigrants.size() < this.migrants * neighbours.length
+			&& (immigrant = mailbox.poll()) != null){
+			immigrants.add(immigrant);
+		}
+		Logger.log(new InformationLowEvent("Island " + island + " sent "
+			+ (sent * neighbours.length) + " Brains, and took "
+			+ immigrants.size() + ", at epoch " + epoch));
+		return immigrants.toArray(new Brain[immigrants.size()]);
+	}
+	
+	/**
+	 * @param island
+	 * @return the islands the island given sends Brains to
+	 */
+	int[] getNeighbours(int island) {
+		if(this.topology == Topology.RING){
+			return new int[]{(island + 1) % this.islands.length};
+		}
+		int[] neighbours = new int[this.islands.length - 1];
+		for(int i = 0, j = 0; i < this.islands.length; i++){
+			if(i != island){
+				neighbours[j++] = i;
+			}
+		}
+		return neighbours;
+	}
+}
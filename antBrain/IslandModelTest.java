@@ -0,0 +1,111 @@
+package antBrain;
+
+import static org.junit.Assert.*;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+import utilities.IOEvent;
+import utilities.IllegalArgumentEvent;
+
+public class IslandModelTest {
+	
+	private Brain[] readPopulation(){
+		Brain[] population = new Brain[3];
+		try{
+			population[0] = BrainParser.readBrainFrom("example");
+			population[1] = BrainParser.readBrainFrom("sample");
+			population[2] = BrainParser.readBrainFrom("better_example");
+		} catch (IOEvent e) {
+			fail(e.getMessage());
+		} catch (IllegalArgumentEvent e) {
+			fail(e.getMessage());
+		}
+		return population;
+	}
+	
+	@Test
+	public void testRingNeighbours(){
+		try{
+			IslandModel islandModel = new IslandModel("food", 3, IslandModel.Topology.RING, 1, 1);
+			assertArrayEquals(new int[]{1}, islandModel.getNeighbours(0));
+			assertArrayEquals(new int[]{2}, islandModel.getNeighbours(1));
+			//The last island sends to the first
+			assertArrayEquals(new int[]{0}, islandModel.getNeighbours(2));
+		} catch (IllegalArgumentEvent e) {
+			fail(e.getMessage());
+		}
+	}
+	
+	@Test
+	public void testFullyConnectedNeighbours(){
+		try{
+			IslandModel islandModel = new IslandModel("food", 4, IslandModel.Topology.FULLY_CONNECTED, 1, 1);
+			assertArrayEquals(new int[]{1, 2, 3}, islandModel.getNeighbours(0));
+			assertArrayEquals(new int[]{0, 2, 3}, islandModel.getNeighbours(1));
+			assertArrayEquals(new int[]{0, 1, 2}, islandModel.getNeighbours(3));
+		} catch (IllegalArgumentEvent e) {
+			fail(e.getMessage());
+		}
+	}
+	
+	@Test
+	public void testMigrateOffInterval(){
+		Brain[] population = readPopulation();
+		try{
+			IslandModel islandModel = new IslandModel("food", 2, IslandModel.Topology.RING, 5, 1);
+			//Nothing is sent or taken between migrations
+			assertEquals(0, islandModel.migrate(0, 3, population).length);
+			assertEquals(0, islandModel.migrate(1, 5, population).length);
+			//Island 1 sent to island 0 at epoch 5
+			assertEquals(1, islandModel.migrate(0, 10, population).length);
+		} catch (IllegalArgumentEvent e) {
+			fail(e.getMessage());
+		}
+	}
+	
+	@Test
+	public void testMigrateCap(){
+		Brain[] population = readPopulation();
+		try{
+			IslandModel islandModel = new IslandModel("food", 3, IslandModel.Topology.FULLY_CONNECTED, 1, 2);
+			//Islands 1 and 2 each send their best 2 Brains to island 0 twice
+			for(int epoch = 0; epoch < 2; epoch++){
+				islandModel.migrate(1, epoch, population);
+				islandModel.migrate(2, epoch, population);
+			}
+			
+			//8 Brains wait for island 0, it takes no more than one migration
+			//sends to it, 2 from each of its 2 neighbours
+			Brain[] immigrants = islandModel.migrate(0, 2, population);
+			assertEquals(4, immigrants.length);
+			//Copies of the best Brains, best first
+			assertNotSame(population[2], immigrants[0]);
+			assertEquals(population[2].toString(), immigrants[0].toString());
+			assertEquals(population[1].toString(), immigrants[1].toString());
+			
+			//The rest are taken at the next migration
+			assertEquals(4, islandModel.migrate(0, 3, population).length);
+			assertEquals(0, islandModel.migrate(0, 4, population).length);
+		} catch (IllegalArgumentEvent e) {
+			fail(e.getMessage());
+		}
+	}
+	
+	@Test
+	public void testSaveFolders(){
+		try{
+			IslandModel islandModel = new IslandModel("food", 3, IslandModel.Topology.RING, 1, 1);
+			Set<String> folders = new HashSet<String>();
+			folders.add(new GeneticAlgorithm("food").getSaveFolder());
+			for(int i = 0; i < islandModel.getIslands(); i++){
+				String folder = islandModel.getIsland(i).getSaveFolder();
+				assertTrue(folder.endsWith("_island_" + i));
+				//Every island is saved apart from the others, and from a
+				//GeneticAlgorithm with the same goal
+				assertTrue(folders.add(folder));
+			}
+		} catch (IllegalArgumentEvent e) {
+			fail(e.getMessage());
+		}
+	}
+}
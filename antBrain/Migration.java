@@ -0,0 +1,25 @@
+package antBrain;
+
+/**
+ *  Migration
+ *  to exchange Brains between the populations of the islands of an
+ * IslandModel, called by each island's GeneticAlgorithm once it has bred
+ * the children of an epoch.
+ *
+ * @author pkew20 / 57116
+ * @version 1.0
+ */
+interface Migration {
+	/**
+	 *  migrate
+	 *  to send copies of the best Brains of a population to other islands,
+	 * and take the Brains other islands have sent, if the epoch is one
+	 * Brains migrate in
+	 * @param epoch the epoch being bred
+	 * @param population the population the children were bred from, ordered
+	 * with the best Brain last
+	 * @return the Brains sent by other islands, with no fitness, which take
+	 * the place of children, empty if none have arrived
+	 */
+	public Brain[] migrate(int epoch, Brain[] population);
+}
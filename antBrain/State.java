@@ -50,41 +50,55 @@ public class State implements Serializable {
 	 * @throws IllegalArgumentEvent if any of the genes are outside their range
 	 */
 	public State(int stateNum, int[] genes) throws IllegalArgumentEvent {
+		this(stateNum, genes, 0);
+	}
+	
+	/**
+	 *  State
+	 *  constructor used by Genome, which holds the genes of every State
+	 * of a Brain in one array
+	 * @param stateNum the number of this state
+	 * @param genes an array holding the values of the command and its
+	 * parameters for this State
+	 * @param offset the index in genes of the first value for this State
+	 * @throws IllegalArgumentEvent if any of the genes are outside their range
+	 */
+	public State(int stateNum, int[] genes, int offset) throws IllegalArgumentEvent {
 		this.stateNum = stateNum;
 		
-		this.command = toCommand(genes[0]);
+		this.command = toCommand(genes[offset]);
 		switch(this.command){
 		//Sense senseDir st1 st2 condition (senseMarker)
 		case SENSE:
-			if(genes[1] < 0 || genes[1] > 3){
+			if(genes[offset + 1] < 0 || genes[offset + 1] > 3){
 				throw new IllegalArgumentEvent("Illegal SenseDir ordinal " +
 					"argument in State constructor");
 			}
-			this.senseDir = toSenseDir(genes[1]);
+			this.senseDir = toSenseDir(genes[offset + 1]);
 			this.turnDir = null;
 			this.marker = -1;
 			this.p = -1;
-			if(genes[5] < 0 || genes[5] > max){
+			if(genes[offset + 5] < 0 || genes[offset + 5] > max){
 				throw new IllegalArgumentEvent("Illegal st1 argument " +
 					"in State constructor");
 			}
-			this.st1 = genes[5];
-			if(genes[6] < 0 || genes[6] > max){
+			this.st1 = genes[offset + 5];
+			if(genes[offset + 6] < 0 || genes[offset + 6] > max){
 				throw new IllegalArgumentEvent("Illegal st2 argument " +
 					"in State constructor");
 			}
-			this.st2 = genes[6];
-			if(genes[7] < 0 || genes[7] > 9){
+			this.st2 = genes[offset + 6];
+			if(genes[offset + 7] < 0 || genes[offset + 7] > 9){
 				throw new IllegalArgumentEvent("Illegal Condition ordinal " +
 					"argument in State constructor");
 			}
-			this.condition = toCondition(genes[7]);
+			this.condition = toCondition(genes[offset + 7]);
 			if(this.condition == Condition.MARKER){
-				if(genes[8] < 0 || genes[8] > 5){
+				if(genes[offset + 8] < 0 || genes[offset + 8] > 5){
 					throw new IllegalArgumentEvent("Illegal SenseMarker " +
 						"argument in State constructor");
 				}
-				this.senseMarker = genes[8];
+				this.senseMarker = genes[offset + 8];
 			}else{
 				this.senseMarker = -1;
 			}
@@ -93,17 +107,17 @@ public class State implements Serializable {
 		case MARK:
 			this.senseDir = null;
 			this.turnDir = null;
-			if(genes[3] < 0 || genes[3] > 5){
+			if(genes[offset + 3] < 0 || genes[offset + 3] > 5){
 				throw new IllegalArgumentEvent("Illegal marker " +
 					"argument in State constructor");
 			}
-			this.marker = genes[3];
+			this.marker = genes[offset + 3];
 			this.p = -1;
-			if(genes[5] < 0 || genes[5] > max){
+			if(genes[offset + 5] < 0 || genes[offset + 5] > max){
 				throw new IllegalArgumentEvent("Illegal st1 " +
 					"argument in State constructor");
 			}
-			this.st1 = genes[5];
+			this.st1 = genes[offset + 5];
 			this.st2 = -1;
 			this.condition = null;
 			this.senseMarker = -1;
@@ -112,17 +126,17 @@ public class State implements Serializable {
 		case UNMARK:
 			this.senseDir = null;
 			this.turnDir = null;
-			if(genes[3] < 0 || genes[3] > 5){
+			if(genes[offset + 3] < 0 || genes[offset + 3] > 5){
 				throw new IllegalArgumentEvent("Illegal marker " +
 					"argument in State constructor");
 			}
-			this.marker = genes[3];
+			this.marker = genes[offset + 3];
 			this.p = -1;
-			if(genes[5] < 0 || genes[5] > max){
+			if(genes[offset + 5] < 0 || genes[offset + 5] > max){
 				throw new IllegalArgumentEvent("Illegal st1 " +
 					"argument in State constructor");
 			}
-			this.st1 = genes[5];
+			this.st1 = genes[offset + 5];
 			this.st2 = -1;
 			this.condition = null;
 			this.senseMarker = -1;
@@ -133,16 +147,16 @@ public class State implements Serializable {
 			this.turnDir = null;
 			this.marker = -1;
 			this.p = -1;
-			if(genes[5] < 0 || genes[5] > max){
+			if(genes[offset + 5] < 0 || genes[offset + 5] > max){
 				throw new IllegalArgumentEvent("Illegal st1 " +
 					"argument in State constructor");
 			}
-			this.st1 = genes[5];
-			if(genes[6] < 0 || genes[6] > max){
+			this.st1 = genes[offset + 5];
+			if(genes[offset + 6] < 0 || genes[offset + 6] > max){
 				throw new IllegalArgumentEvent("Illegal st2 " +
 					"argument in State constructor");
 			}
-			this.st2 = genes[6];
+			this.st2 = genes[offset + 6];
 			this.condition = null;
 			this.senseMarker = -1;
 			break;
@@ -152,11 +166,11 @@ public class State implements Serializable {
 			this.turnDir = null;
 			this.marker = -1;
 			this.p = -1;
-			if(genes[5] < 0 || genes[5] > max){
+			if(genes[offset + 5] < 0 || genes[offset + 5] > max){
 				throw new IllegalArgumentEvent("Illegal st1 " +
 					"argument in State constructor");
 			}
-			this.st1 = genes[5];
+			this.st1 = genes[offset + 5];
 			this.st2 = -1;
 			this.condition = null;
 			this.senseMarker = -1;
@@ -164,18 +178,18 @@ public class State implements Serializable {
 		//Turn turnDir st1
 		case TURN:
 			this.senseDir = null;
-			if(genes[2] < 0 || genes[2] > 1){
+			if(genes[offset + 2] < 0 || genes[offset + 2] > 1){
 				throw new IllegalArgumentEvent("Illegal TurnDir ordinal " +
 					"argument in State constructor");
 			}
-			this.turnDir = toTurnDir(genes[2]);
+			this.turnDir = toTurnDir(genes[offset + 2]);
 			this.marker = -1;
 			this.p = -1;
-			if(genes[5] < 0 || genes[5] > max){
+			if(genes[offset + 5] < 0 || genes[offset + 5] > max){
 				throw new IllegalArgumentEvent("Illegal st1 " +
 					"argument in State constructor");
 			}
-			this.st1 = genes[5];
+			this.st1 = genes[offset + 5];
 			this.st2 = -1;
 			this.condition = null;
 			this.senseMarker = -1;
@@ -186,16 +200,16 @@ public class State implements Serializable {
 			this.turnDir = null;
 			this.marker = -1;
 			this.p = -1;
-			if(genes[5] < 0 || genes[5] > max){
+			if(genes[offset + 5] < 0 || genes[offset + 5] > max){
 				throw new IllegalArgumentEvent("Illegal st1 " +
 					"argument in State constructor");
 			}
-			this.st1 = genes[5];
-			if(genes[6] < 0 || genes[6] > max){
+			this.st1 = genes[offset + 5];
+			if(genes[offset + 6] < 0 || genes[offset + 6] > max){
 				throw new IllegalArgumentEvent("Illegal st2 " +
 					"argument in State constructor");
 			}
-			this.st2 = genes[6];
+			this.st2 = genes[offset + 6];
 			this.condition = null;
 			this.senseMarker = -1;
 			break;
@@ -204,21 +218,21 @@ public class State implements Serializable {
 			this.senseDir = null;
 			this.turnDir = null;
 			this.marker = -1;
-			if(genes[4] < 1){
+			if(genes[offset + 4] < 1){
 				throw new IllegalArgumentEvent("Illegal p " +
 					"argument in State constructor");
 			}
-			this.p = genes[4];
-			if(genes[5] < 0 || genes[5] > max){
+			this.p = genes[offset + 4];
+			if(genes[offset + 5] < 0 || genes[offset + 5] > max){
 				throw new IllegalArgumentEvent("Illegal st1 " +
 					"argument in State constructor");
 			}
-			this.st1 = genes[5];
-			if(genes[6] < 0 || genes[6] > max){
+			this.st1 = genes[offset + 5];
+			if(genes[offset + 6] < 0 || genes[offset + 6] > max){
 				throw new IllegalArgumentEvent("Illegal st2 " +
 					"argument in State constructor");
 			}
-			this.st2 = genes[6];
+			this.st2 = genes[offset + 6];
 			this.condition = null;
 			this.senseMarker = -1;
 			break;
@@ -669,28 +683,39 @@ public class State implements Serializable {
 	 */
 	public int[] getGenes() {
 		int[] genes = new int[9];
-		genes[0] = this.command.ordinal();
+		getGenes(genes, 0);
+		return genes;
+	}
+	
+	/**
+	 *  getGenes
+	 *  to write the encoding of the instructions in this State into an
+	 * array, as getGenes() returns it, without making a new array
+	 * @param genes the array to write the 9 values into
+	 * @param offset the index in genes to write the first value to
+	 */
+	public void getGenes(int[] genes, int offset) {
+		genes[offset] = this.command.ordinal();
 		if(this.senseDir == null){
-			genes[1] = -1;
+			genes[offset + 1] = -1;
 		}else{
-			genes[1] = this.senseDir.ordinal();
+			genes[offset + 1] = this.senseDir.ordinal();
 		}
 		if(this.turnDir == null){
-			genes[2] = -1;
+			genes[offset + 2] = -1;
 		}else{
-			genes[2] = this.turnDir.ordinal();
+			genes[offset + 2] = this.turnDir.ordinal();
 		}
-		genes[3] = this.marker;
-		genes[4] = this.p;
-		genes[5] = this.st1;
-		genes[6] = this.st2;
+		genes[offset + 3] = this.marker;
+		genes[offset + 4] = this.p;
+		genes[offset + 5] = this.st1;
+		genes[offset + 6] = this.st2;
 		if(this.condition == null){
-			genes[7] = -1;
+			genes[offset + 7] = -1;
 		}else{
-			genes[7] = this.condition.ordinal();
+			genes[offset + 7] = this.condition.ordinal();
 		}
-		genes[8] = this.senseMarker;
-		return genes;
+		genes[offset + 8] = this.senseMarker;
 	}
 	
 	/**
@@ -2,12 +2,11 @@ package antWorld;
 
 import engine.Random;
 import engine.SoundPlayer;
-import utilities.ErrorEvent;
 import utilities.IllegalArgumentEvent;
 import utilities.Logger;
 
 import antBrain.Brain;
-import antBrain.State;
+import antBrain.CompiledBrain;
 
 /**
  * Ant
@@ -21,14 +20,27 @@ import antBrain.State;
 public final class Ant implements Comparable<Ant> {
 	protected enum Colour { BLACK, RED }
 	
+	//Rounds an Ant rests for after moving
+	static final int moveRest = 14;
+	
+	//Sense masks are the same for every Ant of a colour, so are shared
+	private static final int[][] senseMasksByColour = {World.senseMasks(0), World.senseMasks(1)};
+	
 	//Random is passed from world, all ants in world, and world itself use the same Random,
 	//with the same seed, so exactly the same game can be replicated
 	//If no Random is passed, generate a new Random with random seed
 	private final Random ran;
 	private final int uid;
 	private final Colour colour;
-	private Brain brain;
-	private Cell cell;
+	//Masks of the flags of a cell for each Sense condition, see World.senseMasks
+	private final int[] senseMasks;
+	private CompiledBrain brain;
+	private int[] program;
+	//The Ant's location is an index into its World's arrays, -1 once dead,
+	//detachedCell is only used for Cells which are not part of a World
+	private World world;
+	private int cell = -1;
+	private Cell detachedCell;
 	private boolean alive = true;
 	private int direction;
 	private boolean hasFood = false;
@@ -36,10 +48,14 @@ public final class Ant implements Comparable<Ant> {
 	
 	//Step local variables as fields to enable inline code
 	//all methods except constructor are final to allow inline code
-	private State state;
-	private Cell senseCell;
-	private Cell newCell;
-	private Ant[] neighbourAnts = new Ant[6];
+	//state is the index of the current state in the compiled table,
+	//instruction is its instruction word
+	private int state;
+	private int instruction;
+	private int senseCell;
+	private int condition;
+	private int mask;
+	private int newCell;
 	private Ant neighbourAnt;
 	
 	//Sound player for the possible sound effects ants can produce
@@ -59,6 +75,23 @@ public final class Ant implements Comparable<Ant> {
 	 * @throws IllegalArgumentEvent if the direction is invalid
 	 */
 	public Ant(int uid, Random ran, int direction, int colour, Cell cell, SoundPlayer soundPlayer) throws IllegalArgumentEvent {
+		this(uid, ran, direction, colour, null, -1, soundPlayer);
+		setCell(cell);
+	}
+	
+	/**
+	 *  Ant
+	 *  to construct an Ant on a cell of a World, used by World
+	 * @param uid the unique identifier of this Ant object
+	 * @param ran the Random to use to flip
+	 * @param direction the direction this Ant should face
+	 * @param colour 0 or 1, the colour of the Ant
+	 * @param world the World the Ant is in
+	 * @param cell the index of the starting location of the Ant in world
+	 * @param soundPlayer the SoundPlayer, if any, to use to record events
+	 * @throws IllegalArgumentEvent if the direction is invalid
+	 */
+	Ant(int uid, Random ran, int direction, int colour, World world, int cell, SoundPlayer soundPlayer) throws IllegalArgumentEvent {
 		this.uid = uid;
 		
 		if(ran == null){
@@ -79,10 +112,16 @@ public final class Ant implements Comparable<Ant> {
 				"argument in Ant Constructor"));
 			this.colour = null;
 		}
+		if(this.colour == null){
+			this.senseMasks = new int[10];
+		}else{
+			this.senseMasks = senseMasksByColour[this.colour.ordinal()];
+		}
 		if(direction < 0 || direction > 5){
 			throw new IllegalArgumentEvent("invalid initial direction");
 		}
 		this.direction = direction;
+		this.world = world;
 		this.cell = cell;
 		
 		this.soundPlayer = soundPlayer;
@@ -111,7 +150,8 @@ public final class Ant implements Comparable<Ant> {
 			return;
 		}
 		
-		switch(this.state.getCommand()){
+		this.instruction = this.program[this.state + CompiledBrain.instruction];
+		switch(CompiledBrain.getCommand(this.instruction)){
 		//Sense senseDir st1 st2 condition
 		case 0:
 			sense();
@@ -144,16 +184,15 @@ public final class Ant implements Comparable<Ant> {
 		case 7:
 			flip();
 			break;
+		//State missing from the Brain, logged when the Brain was compiled,
+		//the Ant stays in this state
+		case CompiledBrain.nullCommand:
+			break;
 		default:
 			//This should not be reached
-			if(this.state.getCommand() == -1){
-				//null command
-				Logger.log(new ErrorEvent("Null Command in state"));
-			}else{
-				//command < -1 || > 7
-				Logger.log(new IllegalArgumentEvent("Illegal Command " +
-					"argument in Ant step"));
-			}
+			//command > 7
+			Logger.log(new IllegalArgumentEvent("Illegal Command " +
+				"argument in Ant step"));
 		}
 	}
 	
@@ -162,30 +201,18 @@ public final class Ant implements Comparable<Ant> {
 	 * Sense senseDir st1 st2 condition
 	 */
 	private final void sense() {
-		switch(this.state.getSenseDir()){
+		switch(CompiledBrain.getOperand(this.instruction)){
 		case 0:
 			this.senseCell = this.cell;
 			break;
 		case 1:
-			try{
-				this.senseCell = this.cell.getNeighbour(this.direction);
-			} catch (ErrorEvent e) {
-				Logger.log(e);
-			}
+			this.senseCell = this.world.getNeighbour(this.cell, this.direction);
 			break;
 		case 2:
-			try {
-				this.senseCell = this.cell.getNeighbour(this.direction - 1);
-			} catch (ErrorEvent e) {
-				Logger.log(e);
-			}
+			this.senseCell = this.world.getNeighbour(this.cell, this.direction - 1);
 			break;
 		case 3:
-			try{
-				this.senseCell = this.cell.getNeighbour(this.direction + 1);
-			} catch (ErrorEvent e) {
-				Logger.log(e);
-			}
+			this.senseCell = this.world.getNeighbour(this.cell, this.direction + 1);
 			break;
 		default:
 			Logger.log(new IllegalArgumentEvent("Illegal senseDir " +
@@ -193,98 +220,22 @@ public final class Ant implements Comparable<Ant> {
 			this.senseCell = this.cell;
 		}
 		
-		//Break after state is altered, state is always altered once per call
-		switch(this.state.getCondition()){
-		//FRIEND
-		case 0:
-			if(this.senseCell.hasAnt()
-				&& this.senseCell.getAnt().getColour() == this.colour.ordinal()){
-				this.state = this.brain.get(this.state.getSt1());
-				break;
-			}
-			this.state = this.brain.get(this.state.getSt2());
-			break;
-		//FOE
-		case 1:
-			if(this.senseCell.hasAnt()
-				&& this.senseCell.getAnt().getColour() != getColour()){
-				this.state = this.brain.get(this.state.getSt1());
-				break;
-			}
-			this.state = this.brain.get(this.state.getSt2());
-			break;
-		//FRIENDWITHFOOD
-		case 2:
-			if(this.senseCell.hasAnt()
-				&& this.senseCell.getAnt().getColour() == this.colour.ordinal()
-				&& this.senseCell.getAnt().hasFood()){
-				this.state = this.brain.get(this.state.getSt1());
-				break;
-			}
-			this.state = this.brain.get(this.state.getSt2());
-			break;
-		//FOEWITHFOOD
-		case 3:
-			if(this.senseCell.hasAnt()
-				&& this.senseCell.getAnt().getColour() != this.colour.ordinal()
-				&& this.senseCell.getAnt().hasFood()){
-				this.state = this.brain.get(this.state.getSt1());
-				break;
-			}
-			this.state = this.brain.get(this.state.getSt2());
-			break;
-		//FOOD
-		case 4:
-			if(this.senseCell.hasFood()){
-				this.state = this.brain.get(this.state.getSt1());
-				break;
-			}
-			this.state = this.brain.get(this.state.getSt2());
-			break;
-		//ROCK
-		case 5:
-			if(this.senseCell.isRocky()){
-				this.state = this.brain.get(this.state.getSt1());
-				break;
-			}
-			this.state = this.brain.get(this.state.getSt2());
-			break;
-		//MARKER
-		case 6:
-			if(this.senseCell.getMarker(this.colour.ordinal(), this.state.getSenseMarker())){
-				this.state = this.brain.get(this.state.getSt1());
-				break;
-			}
-			this.state = this.brain.get(this.state.getSt2());
-			break;
-		//FOEMARKER
-		case 7:
-			if(this.senseCell.getAnyMarker(this.colour.ordinal())){
-				this.state = this.brain.get(this.state.getSt1());
-				break;
-			}
-			this.state = this.brain.get(this.state.getSt2());
-			break;
-		//HOME
-		case 8:
-			if(this.senseCell.getAnthill() - 1 == this.colour.ordinal()) {
-				this.state = this.brain.get(this.state.getSt1());
-				break;
-			}
-			this.state = this.brain.get(this.state.getSt2());
-			break;
-		//FOEHOME
-		case 9:
-			if(this.senseCell.getAnthill() != 0
-				&& this.senseCell.getAnthill() - 1 != this.colour.ordinal()) {
-				this.state = this.brain.get(this.state.getSt1());
-				break;
-			}
-			this.state = this.brain.get(this.state.getSt2());
-			break;
-		default:
+		//Every condition is one mask against the flags of the sensed cell,
+		//Marker masks are of marker 0, so are shifted to the marker sensed
+		this.condition = CompiledBrain.getCondition(this.instruction);
+		if(this.condition > 9){
 			Logger.log(new IllegalArgumentEvent("Illegal Condition Argument in Ant sense"));
-			this.state = this.brain.get(this.state.getSt2());
+			this.state = this.program[this.state + CompiledBrain.st2];
+			return;
+		}
+		this.mask = this.senseMasks[this.condition];
+		if(this.condition == 6){
+			this.mask <<= CompiledBrain.getSenseMarker(this.instruction);
+		}
+		if((this.world.getFlags(this.senseCell) & this.mask) != 0){
+			this.state = this.program[this.state + CompiledBrain.st1];
+		}else{
+			this.state = this.program[this.state + CompiledBrain.st2];
 		}
 	}
 	
@@ -293,8 +244,8 @@ public final class Ant implements Comparable<Ant> {
 	 * Mark marker st1
 	 */
 	private final void mark() {
-		this.cell.mark(this.colour.ordinal(), this.state.getMarker());
-		this.state = this.brain.get(this.state.getSt1());
+		this.world.mark(this.cell, this.colour.ordinal(), CompiledBrain.getOperand(this.instruction));
+		this.state = this.program[this.state + CompiledBrain.st1];
 	}
 	
 	/**
@@ -302,8 +253,8 @@ public final class Ant implements Comparable<Ant> {
 	 * Unmark marker st1
 	 */
 	private final void unmark() {
-		this.cell.unmark(this.colour.ordinal(), this.state.getMarker());
-		this.state = this.brain.get(this.state.getSt1());
+		this.world.unmark(this.cell, this.colour.ordinal(), CompiledBrain.getOperand(this.instruction));
+		this.state = this.program[this.state + CompiledBrain.st1];
 	}
 	
 	/**
@@ -313,16 +264,17 @@ public final class Ant implements Comparable<Ant> {
 	private final void pickUp() {
 		//If can not carrying hasFood, and hasFood in cell,
 		//pick up hasFood and go to st1, else st2
-		if(!this.hasFood && this.cell.hasFood()){
-			this.cell.pickupFood();
+		if(!this.hasFood && this.world.hasFood(this.cell)){
+			this.world.pickupFood(this.cell);
 			this.hasFood = true;
-			this.state = this.brain.get(this.state.getSt1());
+			this.world.antPickedUpFood(this.cell, this.colour.ordinal());
+			this.state = this.program[this.state + CompiledBrain.st1];
 			//Play sound effect
 			if (this.soundPlayer != null) {
 				this.soundPlayer.playSound("food_collection");
 			}
 		}else{
-			this.state = this.brain.get(this.state.getSt2());
+			this.state = this.program[this.state + CompiledBrain.st2];
 		}
 	}
 	
@@ -334,10 +286,11 @@ public final class Ant implements Comparable<Ant> {
 		//Assumes food contained in a cell cannot be > 9
 		//If can carrying hasFood, and hasFood in cell < max, drop up hasFood and go to st1
 		if(this.hasFood){// && this.cell.foodCount() < 9){
-			this.cell.dropFood();
+			this.world.dropFood(this.cell);
 			this.hasFood = false;
+			this.world.antDroppedFood(this.cell, this.colour.ordinal());
 		}
-		this.state = this.brain.get(this.state.getSt1());
+		this.state = this.program[this.state + CompiledBrain.st1];
 		//Play sound effect
 		if (this.soundPlayer != null) {
 			this.soundPlayer.playSound("food_deposition");
@@ -349,7 +302,7 @@ public final class Ant implements Comparable<Ant> {
 	 * Turn turnDir st1
 	 */
 	private final void turn() {
-		switch(this.state.getTurnDir()){
+		switch(CompiledBrain.getOperand(this.instruction)){
 		case 0:
 			//Turn anticlockwise
 			this.direction--;
@@ -367,7 +320,7 @@ public final class Ant implements Comparable<Ant> {
 		default:
 			Logger.log(new IllegalArgumentEvent("Illegal TurnDir Argument in Ant turn"));
 		}
-		this.state = this.brain.get(this.state.getSt1());
+		this.state = this.program[this.state + CompiledBrain.st1];
 	}
 	
 	/**
@@ -377,62 +330,59 @@ public final class Ant implements Comparable<Ant> {
 	private final void move() {
 		//If new cell is not rocky and does not contain an ant,
 		//move there and go to st1, else st2
-		try{
-			this.newCell = this.cell.getNeighbour(this.direction);
-		} catch (ErrorEvent e) {
-			Logger.log(e);
-		}
-		if(!this.newCell.isRocky() && !this.newCell.hasAnt()){
+		this.newCell = this.world.getNeighbour(this.cell, this.direction);
+		if(!this.world.isRocky(this.newCell) && !this.world.hasAnt(this.newCell)){
 			//Move to cell
-			this.newCell.setAnt(this);
-			this.cell.setAnt(null);
+			this.world.setAnt(this.newCell, this);
+			this.world.setAnt(this.cell, null);
 			this.cell = this.newCell;
-			this.state = this.brain.get(this.state.getSt1());
+			this.state = this.program[this.state + CompiledBrain.st1];
 			
 			//Check this and 3 neighbour ants for becoming surrounded
 			//removed use of an array, more efficient
-			try{
-				this.neighbourAnt = this.cell.getNeighbour(this.direction - 1).getAnt();
-			} catch (ErrorEvent e) {
-				Logger.log(e);
-			}
+			this.neighbourAnt = this.world.getAnt(this.world.getNeighbour(this.cell, this.direction - 1));
 			if(this.neighbourAnt != null){
 				if(this.neighbourAnt.isSurrounded()) this.neighbourAnt.kill();
 			}
-			try{
-				this.neighbourAnt = this.cell.getNeighbour(this.direction).getAnt();
-			} catch (ErrorEvent e) {
-				Logger.log(e);
-			}
+			this.neighbourAnt = this.world.getAnt(this.world.getNeighbour(this.cell, this.direction));
 			if(this.neighbourAnt != null){
 				if(this.neighbourAnt.isSurrounded()) this.neighbourAnt.kill();
 			}
-			try{
-				this.neighbourAnt = this.cell.getNeighbour(this.direction + 1).getAnt();
-			} catch (ErrorEvent e) {
-				Logger.log(e);
-			}
+			this.neighbourAnt = this.world.getAnt(this.world.getNeighbour(this.cell, this.direction + 1));
 			if(this.neighbourAnt != null){
 				if(this.neighbourAnt.isSurrounded()) this.neighbourAnt.kill();
 			}
 			
-			this.rest = 14;
+			this.rest = moveRest;
 			
 			if(this.isSurrounded())	this.kill();
 		}else{
-			this.state = this.brain.get(this.state.getSt2());
+			this.state = this.program[this.state + CompiledBrain.st2];
 		}
 	}
 	
+	/**
+	 *  isFlipping
+	 *  to check whether this Ant's next step is a Flip, the only command
+	 * which draws from the Random shared by the whole World
+	 * @return true if the current state of this Ant is a Flip
+	 */
+	final boolean isFlipping() {
+		return CompiledBrain.getCommand(this.program[this.state + CompiledBrain.instruction]) == 7;
+	}
+	
 	/**
 	 * e.g.
 	 * Flip p st1 st2
+	 * 
+	 * Package visible so a World stepping Ants in parallel can make every
+	 * flip of a round itself, in UID order, see ParallelStepper
 	 */
-	private final void flip() {
-		if(this.ran.randomInt(this.state.getP()) == 0){
-			this.state = this.brain.get(this.state.getSt1());
+	final void flip() {
+		if(this.ran.randomInt(this.program[this.state + CompiledBrain.p]) == 0){
+			this.state = this.program[this.state + CompiledBrain.st1];
 		}else{
-			this.state = this.brain.get(this.state.getSt2());
+			this.state = this.program[this.state + CompiledBrain.st2];
 		}
 	}
 	
@@ -440,48 +390,33 @@ public final class Ant implements Comparable<Ant> {
 	 * @return
 	 */
 	private final boolean isSurrounded() {
-		if(neighbourFoes() >= 5){
+		//The World counts the Ants next to every cell as they move and die
+		if(this.world.adjacentFoes(this.cell, this.colour.ordinal()) >= 5){
 			return true;
 		}
 		return false;
 	}
 	
 	/**
-	 * @return
+	 *  setBrain
+	 *  to set the Brain of this Ant, so the Ant uses the Brain's states,
+	 * World.setBrain() should be used for whole species, as it compiles the
+	 * Brain only once
+	 * @param brain the Brain to set
 	 */
-	private final int neighbourFoes() {
-		//Assumes none of the neighbouring cells are null
-		int i;
-		for(i = 0; i < 6; i++){
-			try{
-				this.neighbourAnts[i] = this.cell.getNeighbour(i).getAnt();
-			} catch (ErrorEvent e) {
-				Logger.log(e);
-			}
-		}
-		
-		int foes = 0;
-		//For each neighbouring cell
-		for(Ant ant : this.neighbourAnts){
-			//If the cell contains a foe,
-			//increment number of foes found
-			if(ant != null
-				&& ant.getColour() != this.colour.ordinal()){
-				foes++;
-			}
-		}
-		//All cells must have contained foes
-		return foes;
+	protected final void setBrain(Brain brain) {
+		setBrain(new CompiledBrain(brain));
 	}
 	
 	/**
 	 *  setBrain
-	 *  to set the Brain of this Ant, so the Ant uses the Brain's states
-	 * @param brain the Brain to set
+	 *  to set the compiled Brain of this Ant, so the Ant uses its states
+	 * @param brain the compiled Brain to set
 	 */
-	protected final void setBrain(Brain brain) {
+	protected final void setBrain(CompiledBrain brain) {
 		this.brain = brain;
-		this.state = brain.get(0);
+		this.program = brain.getTable();
+		this.state = 0;
 	}
 	
 	/**
@@ -489,22 +424,75 @@ public final class Ant implements Comparable<Ant> {
 	 */
 	private final void kill() {
 		this.alive = false;
+		this.world.antKilled(this.colour.ordinal(), this.hasFood);
 		
 		//Drop hasFood carried + 3
 		if(this.hasFood){
-			this.cell.dropFood();
+			this.world.dropFood(this.cell);
 		}
-		for(int i = 0; i < 3; i++) this.cell.dropFood();
+		for(int i = 0; i < 3; i++) this.world.dropFood(this.cell);
 		
 		//Remove from world
-		this.cell.setAnt(null);
-		this.cell = null;
+		this.world.setAnt(this.cell, null);
+		this.cell = -1;
 		//Play sound effect
 		if (this.soundPlayer != null) {
 			this.soundPlayer.playSound("die");
 		}
 	}
 	
+	/**
+	 *  getRest
+	 *  to get the number of rounds this Ant will rest for before acting
+	 * @return the number of rounds left to rest
+	 */
+	final int getRest() {
+		return this.rest;
+	}
+	
+	/**
+	 *  wake
+	 *  to end this Ant's rest, used by World, which does not step resting
+	 * Ants, so wakes them when all of their rest rounds have passed
+	 */
+	final void wake() {
+		this.rest = 0;
+	}
+	
+	/**
+	 *  reset
+	 *  to return this Ant to how it was when it was created, keeping its
+	 * Brain, used by World.reset()
+	 * @param direction the direction this Ant should face
+	 * @param cell the index of the starting location of the Ant in its World
+	 */
+	final void reset(int direction, int cell) {
+		this.cell = cell;
+		this.alive = true;
+		this.direction = direction;
+		this.hasFood = false;
+		this.rest = 0;
+		this.state = 0;
+	}
+	
+	/**
+	 *  getState
+	 *  to get the current state of this Ant
+	 * @return the index of the state in the compiled table of the Brain
+	 */
+	final int getState() {
+		return this.state;
+	}
+	
+	/**
+	 *  getCellIndex
+	 *  to get the location of this Ant in its World
+	 * @return the index of the cell, or -1 if the Ant is dead
+	 */
+	final int getCellIndex() {
+		return this.cell;
+	}
+	
 	/**
 	 *  isAlive
 	 *  to check whether the Ant is alive, and has a location Cell
@@ -520,7 +508,13 @@ public final class Ant implements Comparable<Ant> {
 	 * @return the Cell that this Ant occupies
 	 */
 	protected final Cell getCell() {
-		return this.cell;
+		if(this.detachedCell != null){
+			return this.detachedCell;
+		}
+		if(this.cell == -1){
+			return null;
+		}
+		return this.world.getCell(this.cell);
 	}
 	
 	/**
@@ -565,7 +559,13 @@ public final class Ant implements Comparable<Ant> {
 	 * @param cell the Cell to be set as this Ant's location
 	 */
 	protected final void setCell(Cell cell) {
-		this.cell = cell;
+		if(cell instanceof WorldCell){
+			this.world = ((WorldCell) cell).getWorld();
+			this.cell = ((WorldCell) cell).getIndex();
+			this.detachedCell = null;
+		}else{
+			this.detachedCell = cell;
+		}
 	}
 
 	/* (non-Javadoc)
@@ -635,14 +635,14 @@ public final class Ant implements Comparable<Ant> {
 	public final String toString() {
 		String s = "";
 		s += "UID: " + this.uid;
-		s += "\ncell: " + this.cell;
+		s += "\ncell: " + getCell();
 		s += "\nis ";
 		if(!this.alive) s += "not ";
 		s += "alive";
 		s += "\nDirection: " + this.direction;
 		if(!this.hasFood) s += "\ndoes not have food"; else s += "\nhas food";
 		s += "\nrest: " + this.rest;
-		s += "\nstate: " + this.brain.get(this.state);
+		s += "\nstate: " + this.brain.getBrain().get(CompiledBrain.getStateNum(this.state));
 		
 		return s;
 	}
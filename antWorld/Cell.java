@@ -22,7 +22,11 @@ public class Cell implements Cloneable {
 	private boolean rocky;
 	private int food;
 	private int anthill;
-	private boolean[][] markers;
+	//All markers in one word, 6 bits per species, marker i of species s
+	//is bit (s * 6) + i, World keeps the same bits in each cell's flags,
+	//Ants are black or red, so there are never more than 2 species
+	static final int maxSpecies = 2;
+	private int markers;
 	
 	private Cell[] neighbours;
 	private Ant ant;
@@ -46,7 +50,17 @@ public class Cell implements Cloneable {
 		setCell(c);
 	}
 	
-	private Cell(int row, int col, boolean rocky, int food, int anthill){
+	/**
+	 *  Cell
+	 *  constructor for a Cell with the attributes given, used by clone and
+	 * by the Cell views of a World
+	 * @param row the row of the Cell
+	 * @param col the column of the Cell
+	 * @param rocky whether the Cell is rocky
+	 * @param food the amount of food on the Cell
+	 * @param anthill 0 if no anthill, otherwise the anthill of the Cell
+	 */
+	protected Cell(int row, int col, boolean rocky, int food, int anthill){
 		this.row = row;
 		this.col = col;
 		this.rocky = rocky;
@@ -157,11 +171,16 @@ public class Cell implements Cloneable {
 	
 	/**
 	 *  setupMarkers
-	 *  to create a set of 6 boolean markers for each Ant species
-	 * @param specieses the number of species or colours of Ant
+	 *  to clear a set of 6 markers for each Ant species
+	 * @param specieses the number of species or colours of Ant, no more than
+	 * maxSpecies
 	 */
 	protected void setupMarkers(int specieses) {
-		this.markers = new boolean[specieses][6];
+		if(specieses > maxSpecies){
+			Logger.log(new IllegalArgumentEvent("more than " + maxSpecies
+				+ " species in Cell setupMarkers"));
+		}
+		this.markers = 0;
 	}
 	
 	/**
@@ -172,7 +191,7 @@ public class Cell implements Cloneable {
 	 * @param i the location of the marker to set to true
 	 */
 	protected void mark(int species, int i) {
-		this.markers[species][i] = true;
+		this.markers |= markerBit(species, i);
 	}
 	
 	/**
@@ -183,7 +202,7 @@ public class Cell implements Cloneable {
 	 * @param i the location of the marker to set to false
 	 */
 	protected void unmark(int species, int i) {
-		this.markers[species][i] = false;
+		this.markers &= ~markerBit(species, i);
 	}
 	
 	/**
@@ -194,7 +213,7 @@ public class Cell implements Cloneable {
 	 * @return true if the marker at the given position is true
 	 */
 	public boolean getMarker(int species, int i) {
-		return this.markers[species][i];
+		return (this.markers & markerBit(species, i)) != 0;
 	}
 	
 	/**
@@ -206,18 +225,29 @@ public class Cell implements Cloneable {
 	 */
 	public boolean getAnyMarker(int notSpecies) {
 		//returns true if any marker not of species notSpecies is true
-		int i = 0;
-		int j = 0;
-		for(i = 0; i < this.markers.length; i++){
-			if(i != notSpecies){
-				for(j = 0; j < 6; j++){
-					if(this.markers[i][j] == true){
-						return true;
-					}
-				}
-			}
-		}
-		return false;
+		return (this.markers & ~speciesMask(notSpecies)) != 0;
+	}
+	
+	/**
+	 *  markerBit
+	 *  to get the bit of a marker in a packed marker word
+	 * @param species the species of Ant of the marker
+	 * @param i the location of the marker
+	 * @return a word with only the bit of the marker set
+	 */
+	static int markerBit(int species, int i) {
+		return 1 << ((species * 6) + i);
+	}
+	
+	/**
+	 *  speciesMask
+	 *  to get the bits of all 6 markers of a species in a packed marker
+	 * word
+	 * @param species the species of Ant
+	 * @return a word with the bits of all the species' markers set
+	 */
+	static int speciesMask(int species) {
+		return 0x3F << (species * 6);
 	}
 	
 	/**
@@ -310,7 +340,7 @@ public class Cell implements Cloneable {
 	 */
 	@Override
 	public Object clone() {
-		return new Cell(this.row, this.col, this.rocky, this.food, this.anthill);
+		return new Cell(getRow(), getCol(), isRocky(), foodCount(), getAnthill());
 	}
 	
 	/**
@@ -329,38 +359,51 @@ public class Cell implements Cloneable {
 //			}
 //		}
 		
+		return toChar(isRocky(), foodCount(), getAnthill());
+	}
+	
+	/**
+	 *  toChar
+	 *  to get the character representation of a Cell with the attributes
+	 * given, shared with World, which holds its Cells as arrays
+	 * @param rocky whether the Cell is rocky
+	 * @param food the amount of food on the Cell
+	 * @param anthill 0 if no anthill, otherwise the anthill of the Cell
+	 * @return a char that depends on the attributes given
+	 */
+	static char toChar(boolean rocky, int food, int anthill) {
 		//Rock
-		if(this.rocky){
+		if(rocky){
 			return '#';
 			
 		}
 		
 		//Food
-		if(this.food > 0){
+		if(food > 0){
 			//Prints the food value,
 			//if it is > 9, prints 9 instead
-			if(this.anthill == 0){ //0 to 9
-				if(this.food > 9){
+			if(anthill == 0){ //0 to 9
+				if(food > 9){
 					return 48 + 9;
 				}
-				return (char) (this.food + 48);
+				return (char) (food + 48);
 			}
 			
 			//Otherwise, food must be in an anthill
 			//so give unique char value that acknowledges this
 			//Greek isn't recognised by Notepad or the console (prints '?' instead)
 			//Minimum food value is 1, so -1 from ascii codes
-			if(this.anthill == 1){ //Upper case, 65 for Latin, 913 for Greek
-				if(this.food > 9){
+			if(anthill == 1){ //Upper case, 65 for Latin, 913 for Greek
+				if(food > 9){
 					return (char) (64 + 9);
 				}
-				return (char) (64 + this.food);
+				return (char) (64 + food);
 			}
-			if(this.anthill == 2){ //Lower case, 97 for Latin, 945 for Greek
-				if(this.food > 9){
+			if(anthill == 2){ //Lower case, 97 for Latin, 945 for Greek
+				if(food > 9){
 					return (char) (96 + 9);
 				}
-				return (char) (96 + this.food);
+				return (char) (96 + food);
 			}
 			//Else error, cannot be less than 0 or more than 2 anthills
 			Logger.log(new WarningEvent("Cell anthill value not 0, 1 or 2"));
@@ -368,30 +411,15 @@ public class Cell implements Cloneable {
 		}
 		
 		//Anthill
-		if(this.anthill > 0){
-			if(this.anthill == 1){
+		if(anthill > 0){
+			if(anthill == 1){
 				return '+';
 			}
-			if(this.anthill == 2){
+			if(anthill == 2){
 				return '-';
 			}
 		}
 		
-//		//Markers
-//		for(int i = 0; i < this.markers.length; i++){
-//			for(boolean marker : this.markers[i]){
-//				if(marker){
-//					if(i == 0){
-//						return '[';
-//					}else if(i == 1){
-//						return ']';
-//					}else{
-//						return '?';
-//					}
-//				}
-//			}		
-//		}
-		
 		return '.';
 	}
 	
@@ -0,0 +1,85 @@
+package antWorld;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ *  NeighbourTable
+ *  to hold the index of each of the 6 neighbours of every cell in a
+ * World, so Ants can find neighbouring cells with a single array lookup.
+ * Tables never change once built, so all Worlds with the same number of
+ * rows and columns share one.
+ *
+ * @author pkew20 / 57116
+ * @version 1.0
+ */
+final class NeighbourTable {
+	//Maps direction + 1 to a direction between 0 and 5, so Ants can look up
+	//the cells either side of the one they are facing without checking bounds
+	private static final int[] directions = {5, 0, 1, 2, 3, 4, 5, 0};
+	
+	//Tables already built, by rows and cols
+	private static final Map<Long, int[]> tables = new HashMap<Long, int[]>();
+	
+	private NeighbourTable() {
+	}
+	
+	/**
+	 *  getTable
+	 *  to get the neighbour table of a World of the size given, neighbour
+	 * i of cell n is at n * 6 + i, neighbours off the edge of the World are -1
+	 * @param rows the number of rows in the World
+	 * @param cols the number of columns in the World
+	 * @return the shared table, which must not be altered
+	 */
+	static synchronized int[] getTable(int rows, int cols) {
+		Long key = ((long) rows << 32) | cols;
+		int[] table = tables.get(key);
+		if(table == null){
+			table = build(rows, cols);
+			tables.put(key, table);
+		}
+		return table;
+	}
+	
+	/**
+	 *  direction
+	 *  to wrap a direction into the range 0 to 5
+	 * @param direction a direction between -1 and 6, as found by an Ant
+	 * adding or subtracting 1 from the direction it is facing
+	 * @return the same direction between 0 and 5
+	 */
+	static int direction(int direction) {
+		return directions[direction + 1];
+	}
+	
+	private static int[] build(int rows, int cols) {
+		int[] table = new int[rows * cols * 6];
+		int cell = 0;
+		int k;
+		for(int r = 0; r < rows; r++){
+			//Subtract indent from calculations
+			//0 if row is unindented, 1 if row is indented
+			k = r % 2;
+			for(int c = 0; c < cols; c++){
+				//Clockwise from east
+				table[(cell * 6)    ] = index(rows, cols, r    , c + 1    ); //east
+				table[(cell * 6) + 1] = index(rows, cols, r + 1, c + k    ); //south-east
+				table[(cell * 6) + 2] = index(rows, cols, r + 1, c - 1 + k); //south-west
+				table[(cell * 6) + 3] = index(rows, cols, r    , c - 1    ); //west
+				table[(cell * 6) + 4] = index(rows, cols, r - 1, c - 1 + k); //north-west
+				table[(cell * 6) + 5] = index(rows, cols, r - 1, c + k    ); //north-east
+				cell++;
+			}
+		}
+		return table;
+	}
+	
+	private static int index(int rows, int cols, int r, int c) {
+		//Neighbours of border cells off the edge of the World are -1
+		if(r < 0 || r >= rows || c < 0 || c >= cols){
+			return -1;
+		}
+		return (r * cols) + c;
+	}
+}
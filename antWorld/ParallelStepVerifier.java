@@ -0,0 +1,102 @@
+package antWorld;
+
+import utilities.ErrorEvent;
+import utilities.IOEvent;
+import utilities.IllegalArgumentEvent;
+import utilities.InformationHighEvent;
+import utilities.Logger;
+import utilities.WarningEvent;
+
+import antBrain.Brain;
+import antBrain.BrainParser;
+
+/**
+ *  ParallelStepVerifier
+ *  to check that stepping a World on several threads, see
+ * World.setStepThreads(), gives exactly the same game as stepping it on
+ * one, by playing the same game in two clones of a World side by side,
+ * and comparing the whole state of both every few rounds.
+ *
+ * Usage: ParallelStepVerifier [threads] [rounds] [size] [blackBrain] [redBrain]
+ *
+ * @author pkew20 / 57116
+ * @version 1.0
+ */
+public final class ParallelStepVerifier {
+	private ParallelStepVerifier() {
+	}
+	
+	/**
+	 *  verify
+	 *  to play a game in two clones of a World, one stepped on one thread,
+	 * the other on several, and check they stay identical
+	 * @param world the World to clone, which is not played in
+	 * @param blackBrain the Brain of the black Ants
+	 * @param redBrain the Brain of the red Ants
+	 * @param rounds the number of rounds to play
+	 * @param threads the number of threads to step the second clone on
+	 * @param checkEvery the number of rounds between comparisons, the
+	 * Worlds are always compared after the last round
+	 * @return the first round after which the Worlds differed, or -1 if
+	 * they never did
+	 */
+	public static int verify(World world, Brain blackBrain, Brain redBrain,
+		int rounds, int threads, int checkEvery) {
+		World sequential = (World) world.clone();
+		World parallel = (World) world.clone();
+		for(World clone : new World[]{sequential, parallel}){
+			clone.setBrain(blackBrain, 0);
+			clone.setBrain(redBrain, 1);
+		}
+		
+		parallel.setStepThreads(threads);
+		try{
+			for(int round = 1; round <= rounds; round++){
+				sequential.step();
+				parallel.step();
+				if((round % checkEvery == 0 || round == rounds)
+					&& !sequential.sameState(parallel)){
+					return round;
+				}
+			}
+		}finally{
+			parallel.setStepThreads(1);
+		}
+		return -1;
+	}
+	
+	public static void main(String[] args) {
+		Logger.setLogLevel(Logger.LogLevel.HIGH_LOGGING);
+		Logger.setLogToTerminal(true);
+		int threads = args.length > 0 ? Integer.parseInt(args[0])
+			: Runtime.getRuntime().availableProcessors();
+		int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+		int size = args.length > 2 ? Integer.parseInt(args[2]) : 400;
+		String black = args.length > 3 ? args[3] : "baxters_brain_3";
+		String red = args.length > 4 ? args[4] : "frictionless_bananas_1";
+		
+		try{
+			Brain blackBrain = BrainParser.readBrainFrom(black);
+			Brain redBrain = BrainParser.readBrainFrom(red);
+			//A large World, with large anthills, so there are many Ants to share out
+			World world = new World(1, size, size, size / 10, 2, size / 20,
+				size / 10, 5, 5, 0, 1, null);
+			int used = ParallelStepper.getStripes(size, threads);
+			
+			int differs = verify(world, blackBrain, redBrain, rounds, threads, 100);
+			if(differs < 0){
+				Logger.log(new InformationHighEvent("Stepping on " + used
+					+ " threads gave the same game as on 1, for " + rounds + " rounds"));
+			}else{
+				Logger.log(new WarningEvent("Stepping on " + used
+					+ " threads gave a different game from on 1, by round " + differs));
+			}
+		}catch(ErrorEvent e){
+			Logger.log(e);
+		}catch(IOEvent e){
+			Logger.log(e);
+		}catch(IllegalArgumentEvent e){
+			Logger.log(e);
+		}
+	}
+}
@@ -0,0 +1,293 @@
+package antWorld;
+
+import java.util.Arrays;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ *  ParallelStepper
+ *  to step the Ants of one World on several threads, with the same result
+ * as stepping them one at a time in UID order.
+ *
+ * The rows of the World are split into stripes, one per thread, and the
+ * awake Ants of each stripe are stepped in UID order. Everything an Ant
+ * does in a round is within reach cells of where it started the round, so
+ * two Ants further apart than that in rows can be stepped in either order.
+ * Only Ants within reach rows of the next stripe can be that close to its
+ * Ants, so before stepping one, a thread waits for the next stripe to step
+ * every Ant it has within reach rows of the shared edge with a lower UID.
+ *
+ * Flip is the only command which draws from the Random shared by the
+ * whole World, and only changes the state of the Ant flipping, so flips
+ * are not made by the threads, but afterwards, by World, in UID order.
+ *
+ * @author pkew20 / 57116
+ * @version 1.0
+ */
+final class ParallelStepper {
+	//Cells an Ant's step can read or write are within 3 cells of it, so
+	//the steps of Ants more than 2 * 3 rows apart can be made in any order
+	static final int reach = 6;
+	//Stripes at least this many rows high only wait for their neighbours
+	static final int minStripeRows = 2 * reach;
+	private static final int none = Integer.MAX_VALUE;
+	
+	private final Ant[] ants;
+	private final int cols;
+	private final int threads;
+	private final int stripeRows;
+	private final Thread[] workers;
+	private final Phaser phaser;
+	private volatile boolean stopped = false;
+	private volatile RuntimeException error;
+	
+	//For the round being stepped, the awake Ants of each stripe, in UID order,
+	//the Ants of each stripe within reach rows of the stripe above and below,
+	//and the Ants of each stripe which flip
+	private final int[][] stripeAnts;
+	private final int[] stripeCounts;
+	private final int[][] topAnts;
+	private final int[] topCounts;
+	private final int[][] bottomAnts;
+	private final int[] bottomCounts;
+	private final int[][] flips;
+	private final int[] flipCounts;
+	//UID of the next Ant of each stripe not yet stepped, within reach rows of
+	//the stripe above, and of the stripe below, none once all are stepped
+	private final AtomicIntegerArray topProgress;
+	private final AtomicIntegerArray bottomProgress;
+	//Whether each Ant was alive once its turn had been taken
+	private final boolean[] aliveAfterTurn;
+	
+	/**
+	 *  ParallelStepper
+	 *  to start the threads which step the Ants given, the threads wait
+	 * between rounds, and are daemons, so do not keep the Virtual Machine
+	 * running, but should be stopped with stop() when no longer needed
+	 * @param ants the Ants of the World, by UID
+	 * @param rows the rows of the World
+	 * @param cols the columns of the World
+	 * @param threads the number of threads to step Ants on, including the
+	 * thread calling step(), limited so every stripe is minStripeRows high
+	 */
+	ParallelStepper(Ant[] ants, int rows, int cols, int threads) {
+		this.ants = ants;
+		this.cols = cols;
+		this.threads = getStripes(rows, threads);
+		this.stripeRows = (rows + this.threads - 1) / this.threads;
+		
+		this.stripeAnts = new int[this.threads][ants.length];
+		this.stripeCounts = new int[this.threads];
+		this.topAnts = new int[this.threads][ants.length];
+		this.topCounts = new int[this.threads];
+		this.bottomAnts = new int[this.threads][ants.length];
+		this.bottomCounts = new int[this.threads];
+		this.flips = new int[this.threads][ants.length];
+		this.flipCounts = new int[this.threads];
+		this.topProgress = new AtomicIntegerArray(this.threads);
+		this.bottomProgress = new AtomicIntegerArray(this.threads);
+		this.aliveAfterTurn = new boolean[ants.length];
+		
+		//This thread steps stripe 0
+		this.phaser = new Phaser(this.threads);
+		this.workers = new Thread[this.threads - 1];
+		for(int i = 0; i < this.workers.length; i++){
+			final int stripe = i + 1;
+			this.workers[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					work(stripe);
+				}
+			}, "ParallelStepper");
+			this.workers[i].setDaemon(true);
+			this.workers[i].start();
+		}
+	}
+	
+	/**
+	 *  getStripes
+	 *  to get the number of stripes, and threads, a World would be stepped on
+	 * @param rows the rows of the World
+	 * @param threads the number of threads asked for
+	 * @return the number of stripes at least minStripeRows high, at most threads
+	 */
+	static int getStripes(int rows, int threads) {
+		return Math.max(1, Math.min(threads, rows / minStripeRows));
+	}
+	
+	/**
+	 *  getThreads
+	 *  to get the number of threads Ants are stepped on
+	 * @return the number of stripes, which may be fewer than asked for
+	 */
+	int getThreads() {
+		return this.threads;
+	}
+	
+	/**
+	 *  step
+	 *  to step every awake Ant given, except for flips, which are
+	 * left to the caller, see getFlips()
+	 * @param awakeAnts the UIDs of the Ants to step, in UID order
+	 * @param count the number of UIDs in awakeAnts
+	 */
+	void step(int[] awakeAnts, int count) {
+		Arrays.fill(this.stripeCounts, 0);
+		Arrays.fill(this.topCounts, 0);
+		Arrays.fill(this.bottomCounts, 0);
+		Arrays.fill(this.flipCounts, 0);
+		
+		int uid;
+		int row;
+		int stripe;
+		for(int i = 0; i < count; i++){
+			uid = awakeAnts[i];
+			if(!this.ants[uid].isAlive()){
+				//Dead Ants are woken, as World.step() does, but do nothing
+				this.ants[uid].wake();
+				this.aliveAfterTurn[uid] = false;
+				continue;
+			}
+			row = this.ants[uid].getCellIndex() / this.cols;
+			stripe = row / this.stripeRows;
+			this.stripeAnts[stripe][this.stripeCounts[stripe]++] = uid;
+			if(stripe > 0 && row - (stripe * this.stripeRows) < reach){
+				this.topAnts[stripe][this.topCounts[stripe]++] = uid;
+			}
+			if(stripe < this.threads - 1 && ((stripe + 1) * this.stripeRows) - row <= reach){
+				this.bottomAnts[stripe][this.bottomCounts[stripe]++] = uid;
+			}
+		}
+		for(stripe = 0; stripe < this.threads; stripe++){
+			this.topProgress.set(stripe, this.topCounts[stripe] > 0 ? this.topAnts[stripe][0] : none);
+			this.bottomProgress.set(stripe, this.bottomCounts[stripe] > 0 ? this.bottomAnts[stripe][0] : none);
+		}
+		
+		//Start the round on every thread, and wait for all of them to finish it
+		this.phaser.arriveAndAwaitAdvance();
+		stepSafely(0);
+		this.phaser.arriveAndAwaitAdvance();
+		
+		RuntimeException error = this.error;
+		if(error != null){
+			this.error = null;
+			throw error;
+		}
+	}
+	
+	/**
+	 *  isAliveAfterTurn
+	 *  to check whether an Ant stepped in the last round was alive once its
+	 * turn was over, Ants can be killed later in the round
+	 * @param uid the UID of the Ant
+	 * @return true if the Ant was alive after its step
+	 */
+	boolean isAliveAfterTurn(int uid) {
+		return this.aliveAfterTurn[uid];
+	}
+	
+	/**
+	 *  getFlips
+	 *  to get the Ants which were to flip in the last round, which must
+	 * flip in UID order to draw from the World's Random as World.step() does
+	 * @return the UIDs of the Ants, in UID order
+	 */
+	int[] getFlips() {
+		int total = 0;
+		for(int stripe = 0; stripe < this.threads; stripe++){
+			total += this.flipCounts[stripe];
+		}
+		int[] flips = new int[total];
+		total = 0;
+		for(int stripe = 0; stripe < this.threads; stripe++){
+			System.arraycopy(this.flips[stripe], 0, flips, total, this.flipCounts[stripe]);
+			total += this.flipCounts[stripe];
+		}
+		Arrays.sort(flips);
+		return flips;
+	}
+	
+	/**
+	 *  stop
+	 *  to stop the threads, once they have finished the current round,
+	 * the stepper must not be used afterwards
+	 */
+	void stop() {
+		this.stopped = true;
+		this.phaser.arriveAndDeregister();
+	}
+	
+	private void work(int stripe) {
+		while(true){
+			this.phaser.arriveAndAwaitAdvance();
+			if(this.stopped){
+				this.phaser.arriveAndDeregister();
+				return;
+			}
+			stepSafely(stripe);
+			this.phaser.arriveAndAwaitAdvance();
+		}
+	}
+	
+	private void stepSafely(int stripe) {
+		try{
+			stepStripe(stripe);
+		}catch(RuntimeException e){
+			//Stripes waiting on this one must not wait forever,
+			//the error is thrown by step() once the round is over
+			this.error = e;
+			this.topProgress.set(stripe, none);
+			this.bottomProgress.set(stripe, none);
+		}
+	}
+	
+	private void stepStripe(int stripe) {
+		int[] stripeAnts = this.stripeAnts[stripe];
+		int count = this.stripeCounts[stripe];
+		int[] topAnts = this.topAnts[stripe];
+		int[] bottomAnts = this.bottomAnts[stripe];
+		int top = 0;
+		int bottom = 0;
+		int uid;
+		Ant ant;
+		for(int i = 0; i < count; i++){
+			uid = stripeAnts[i];
+			ant = this.ants[uid];
+			boolean isTop = top < this.topCounts[stripe] && topAnts[top] == uid;
+			boolean isBottom = bottom < this.bottomCounts[stripe] && bottomAnts[bottom] == uid;
+			
+			//Ants of the next stripes which could be affected by this one,
+			//or affect it, and come first in UID order, must step first
+			if(isTop){
+				awaitProgress(this.bottomProgress, stripe - 1, uid);
+			}
+			if(isBottom){
+				awaitProgress(this.topProgress, stripe + 1, uid);
+			}
+			
+			ant.wake();
+			if(ant.isAlive() && ant.isFlipping()){
+				this.flips[stripe][this.flipCounts[stripe]++] = uid;
+			}else{
+				ant.step();
+			}
+			this.aliveAfterTurn[uid] = ant.isAlive();
+			
+			if(isTop){
+				top++;
+				this.topProgress.set(stripe, top < this.topCounts[stripe] ? topAnts[top] : none);
+			}
+			if(isBottom){
+				bottom++;
+				this.bottomProgress.set(stripe, bottom < this.bottomCounts[stripe] ? bottomAnts[bottom] : none);
+			}
+		}
+	}
+	
+	private static void awaitProgress(AtomicIntegerArray progress, int stripe, int uid) {
+		//Stripes only wait for lower UIDs, so one of them can always continue
+		while(progress.get(stripe) < uid){
+			Thread.yield();
+		}
+	}
+}
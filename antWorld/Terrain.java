@@ -0,0 +1,108 @@
+package antWorld;
+
+/**
+ *  Terrain
+ *  to hold the parts of a World which never change during a game, the
+ * rocks, anthills and neighbours of every cell, and the food in every cell
+ * when the game starts. Terrain is never altered once built, so any number
+ * of Worlds, including Worlds running at the same time on different threads,
+ * can share one, and each only needs its own food, flags and Ants.
+ *
+ * @author pkew20 / 57116
+ * @version 1.0
+ */
+final class Terrain {
+	private final boolean[] rocky;
+	private final byte[] anthill;
+	private final int[] neighbours;
+	
+	//Starting state of the parts of a World which change during a game
+	private final int[] food;
+	private final int[] flags;
+	private final int[] anthillFood;
+	
+	/**
+	 *  Terrain
+	 *  to capture the terrain of a World which has just been built
+	 * @param rows the number of rows in the World
+	 * @param cols the number of columns in the World
+	 * @param rocky the rockiness of each cell, which must not be altered after
+	 * this is called
+	 * @param anthill the anthill of each cell, which must not be altered after
+	 * this is called
+	 * @param food the food in each cell, which is copied
+	 */
+	Terrain(int rows, int cols, boolean[] rocky, byte[] anthill, int[] food) {
+		int cellCount = rows * cols;
+		this.rocky = rocky;
+		this.anthill = anthill;
+		this.neighbours = NeighbourTable.getTable(rows, cols);
+		this.food = food.clone();
+		
+		this.flags = new int[cellCount];
+		this.anthillFood = new int[Cell.maxSpecies];
+		for(int cell = 0; cell < cellCount; cell++){
+			this.flags[cell] = World.terrainFlags(rocky[cell], food[cell], anthill[cell]);
+			if(anthill[cell] != 0){
+				this.anthillFood[anthill[cell] - 1] += food[cell];
+			}
+		}
+	}
+	
+	/**
+	 *  getRocky
+	 *  to get the rockiness of each cell, which must not be altered
+	 * @return true for each rocky cell, by index
+	 */
+	boolean[] getRocky() {
+		return this.rocky;
+	}
+	
+	/**
+	 *  getAnthill
+	 *  to get the anthill of each cell, which must not be altered
+	 * @return 0 for no anthill, otherwise the anthill number, by index
+	 */
+	byte[] getAnthill() {
+		return this.anthill;
+	}
+	
+	/**
+	 *  getNeighbours
+	 *  to get the neighbour table of this Terrain, see NeighbourTable
+	 * @return the shared neighbour table
+	 */
+	int[] getNeighbours() {
+		return this.neighbours;
+	}
+	
+	/**
+	 *  getFood
+	 *  to get the food in each cell at the start of a game, which must not
+	 * be altered, Worlds copy it
+	 * @return the starting food, by index
+	 */
+	int[] getFood() {
+		return this.food;
+	}
+	
+	/**
+	 *  getFlags
+	 *  to get the flags of each cell at the start of a game, without any
+	 * Ants or markers, which must not be altered, Worlds copy it
+	 * @return the starting flags, by index
+	 */
+	int[] getFlags() {
+		return this.flags;
+	}
+	
+	/**
+	 *  getAnthillFood
+	 *  to get the food in each anthill at the start of a game, which must
+	 * not be altered
+	 * @return the starting food, by anthill
+	 */
+	int[] getAnthillFood() {
+		return this.anthillFood;
+	}
+}
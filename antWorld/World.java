@@ -1,5 +1,7 @@
 package antWorld;
 
+import java.util.Arrays;
+
 import engine.Random;
 import engine.SoundPlayer;
 import utilities.ErrorEvent;
@@ -7,6 +9,7 @@ import utilities.IllegalArgumentEvent;
 import utilities.Logger;
 
 import antBrain.Brain;
+import antBrain.CompiledBrain;
 
 /**
  *  World
@@ -23,6 +26,8 @@ public class World implements Cloneable {
 	//Seed is generated randomly, but is recorded, so the same seed can be used again
 	private final int seed;
 	private final Random ran;
+	//State of ran when the World was built, so reset() can replay the same game
+	private int startState;
 	
 	private final int rows;
 	private final int cols;
@@ -42,7 +47,24 @@ public class World implements Cloneable {
 	
 	private final int gap; //gap between objects in world
 	
-	private Cell[][] cells; //indent every second line, starting at cells[1]
+	//The grid is held as flat arrays of primitives, addressed by cell index,
+	//index = (row * cols) + col, indent every second row, starting at row 1
+	//rocky, anthill and neighbours never change once the World is built,
+	//they belong to terrain, which is shared with clones of this World
+	private final int cellCount;
+	private final Terrain terrain;
+	private final boolean[] rocky;
+	private final byte[] anthill; //0 if no anthill, otherwise the anthill number
+	private final int[] neighbours; //shared by all Worlds of the same size, see NeighbourTable
+	//The rest changes during a game, so belongs to this World alone
+	private final int[] food;
+	//Everything an Ant can sense in each cell, in one word, see the flag constants below
+	private final int[] flags;
+	private final int[] antAt; //UID of the Ant in each cell, or -1 if there is none
+	//Number of Ants of each species next to each cell, at index * anthills + species
+	private byte[] adjacentAnts;
+	//Cell views of the arrays, only created if asked for, e.g. by the GUI
+	private Cell[][] cells;
 	
 	//I use 2 different ways of storing the pointers to the ants in the world
 	//These should be kept in sync as they only use pointers,
@@ -51,9 +73,34 @@ public class World implements Cloneable {
 	//Arrays.sort() will restore the list to UID order, as it was created
 	private Ant[] ants;
 	private Ant[][] antsBySpecies;
+	private int[] antStartCells; //index of the cell each Ant started in, by UID
+	
+	//Scheduler, so each round only the Ants that can act are stepped,
+	//awake has a bit set for each Ant to step next round, by UID,
+	//Ants resting after a move are moved to wakeWheel[round they wake % length]
+	//until then, dead Ants are dropped
+	private long[] awake;
+	private long[][] wakeWheel;
 
 	private int round = 0;
 	
+	//If not null, steps the Ants on several threads, see setStepThreads(),
+	//stepAnts holds the UIDs of the awake Ants each round for it
+	private ParallelStepper stepper = null;
+	private int[] stepAnts;
+	
+	//Scoreboard, kept up to date as food is moved and Ants die,
+	//so it can be read without scanning the World, by anthill / species
+	//setCell can be used before the number of anthills is known, so anthillFood
+	//has room for the most species there can be
+	private final int[] anthillFood = new int[Cell.maxSpecies];
+	private int[] livingAnts;
+	private int[] antsWithFood;
+	
+	//If true, the scoreboard is checked against a scan of the World every
+	//time it is read, for debugging
+	private static boolean verifyCounters = false;
+	
 	//Sound player for the possible sound effects ants can produce
 	//This can be null (in the case of contests, so checks for null need to be
 	//made before sounds are played)
@@ -63,6 +110,23 @@ public class World implements Cloneable {
 	//'+' == black
 	//'-' == red
 	
+	//Layout of the flags of a cell, so any Sense condition is a single mask,
+	//bits 0-11: markers, as in Cell
+	//bits 12-13: an Ant of species 0 or 1
+	//bits 14-15: an Ant of species 0 or 1 carrying food
+	//bit 16: food
+	//bit 17: rock
+	//bits 18-19: anthill of species 0 or 1
+	static final int markerFlags = (1 << (6 * Cell.maxSpecies)) - 1;
+	private static final int antShift = 12;
+	private static final int antWithFoodShift = 14;
+	static final int foodFlag = 1 << 16;
+	static final int rockFlag = 1 << 17;
+	private static final int homeShift = 18;
+	static final int antFlags = 3 << antShift;
+	static final int antWithFoodFlags = 3 << antWithFoodShift;
+	static final int homeFlags = 3 << homeShift;
+	
 	/**
 	 *  getContestWorld
 	 *  to get a new World with many of the default settings for
@@ -133,6 +197,10 @@ public class World implements Cloneable {
 			this.rocks = rocks;
 			this.rockAreaConsistency = true;
 			this.borderRocks = true;
+			//Markers of every species must fit into one word per cell
+			if(anthills > Cell.maxSpecies){
+				throw new IllegalArgumentEvent("more than " + Cell.maxSpecies + " anthills");
+			}
 			this.anthills = anthills;
 			this.anthillSideLength = anthillSideLength;
 			this.anthillAreaConsistency = true;
@@ -144,29 +212,18 @@ public class World implements Cloneable {
 			this.gap = gap;
 			this.soundPlayer = soundPlayer;
 
-			//Initialise every cell to be clear
-			int r = 0;
-			int c = 0;
-			this.cells = new Cell[rows][cols];
-			for(r = 0; r < rows; r++){
-				this.cells[r] = new Cell[cols];
-				for(c = 0; c < cols; c++){
-					this.cells[r][c] = new Cell(r, c, '.');
-				}
-			}
-
-			Cell current;
-			//Setup markers in each cell
-			//Use this. for fields, local variables created above
-			for(r = 0; r < rows; r++){
-				for(c = 0; c < cols; c++){
-					current = this.cells[r][c];
-					current.setNeighbours(getNeighbours(current));
-					current.setupMarkers(this.anthills);
-				}
-			}
+			//Every cell starts clear, as all arrays are initialised to 0
+			this.cellCount = rows * cols;
+			this.neighbours = NeighbourTable.getTable(rows, cols);
+			this.rocky = new boolean[this.cellCount];
+			this.anthill = new byte[this.cellCount];
+			this.food = new int[this.cellCount];
+			this.flags = new int[this.cellCount];
+			this.antAt = new int[this.cellCount];
 
 			createWorld();
+			this.terrain = new Terrain(rows, cols, this.rocky, this.anthill, this.food);
+			this.startState = this.ran.getState();
 		} catch (IllegalArgumentEvent e) {
 			throw new ErrorEvent(e.getMessage(), e);
 		}
@@ -188,35 +245,27 @@ public class World implements Cloneable {
 		this.rows = cellChars.length;
 		this.cols = cellChars[0].length;
 		
-		this.cells = new Cell[this.rows][this.cols];
+		this.cellCount = this.rows * this.cols;
+		this.neighbours = NeighbourTable.getTable(this.rows, this.cols);
+		this.rocky = new boolean[this.cellCount];
+		this.anthill = new byte[this.cellCount];
+		this.food = new int[this.cellCount];
+		this.flags = new int[this.cellCount];
+		this.antAt = new int[this.cellCount];
 		int r = 0;
 		int c = 0;
 		
 		//Setup cells
 		for(r = 0; r < this.rows; r++){
-			this.cells[r] = new Cell[this.cols];
 			for(c = 0; c < this.cols; c++){
 				try {
-					this.cells[r][c] = new Cell(r, c, cellChars[r][c]);
+					setCell(index(r, c), cellChars[r][c]);
 				} catch (IllegalArgumentEvent e) {
 					throw new ErrorEvent(e.getMessage(), e);
 				}
 			}
 		}
 		
-		//Setup neighbours for each cell
-		Cell current;
-		for(r = 0; r < this.rows; r++){
-			for(c = 0; c < this.cols; c++){
-				current = this.cells[r][c];
-				try {
-					current.setNeighbours(getNeighbours(current));
-				} catch (IllegalArgumentEvent e) {
-					Logger.log(e);
-				}
-			}
-		}
-		
 		//Assumptions:
 		//There are no more than 2 types of anthill in the world ('+' and '-')
 		//Food blobs are square, and all have the same side length
@@ -231,21 +280,22 @@ public class World implements Cloneable {
 		int rocks = 0;
 		for(r = 1; r < this.rows - 1; r++){
 			for(c = 1; c < this.cols - 1; c++){
-				if(this.cells[r][c].isRocky()) rocks++;
+				if(this.rocky[index(r, c)]) rocks++;
 			}
 		}
 		this.rocks = rocks;
 		
 		//rockAreaConsistency
+		int current;
 		boolean rockAreaConsistency = true;
 		rockAreaLoop:
 			for(r = 1; r < this.rows - 1; r++){
 				for(c = 1; c < this.cols - 1; c++){
-					current = this.cells[r][c];
-					if(current.isRocky()){
+					current = index(r, c);
+					if(this.rocky[current]){
 						//Cells must be surrounded by clear cells
-						for(Cell neighbour : current.getNeighbours()){
-							if(neighbour.toChar() != '.'){
+						for(int neighbour : getNeighbours(current)){
+							if(toChar(neighbour) != '.'){
 								rockAreaConsistency = false;
 								break rockAreaLoop;
 							}
@@ -266,16 +316,16 @@ public class World implements Cloneable {
 		int[][] anthillLocs = new int[2][2];
 		for(r = 0; r < this.rows && (!existingAnthills[0] || !existingAnthills[1]); r++){
 			for(c = 0; c < this.cols && (!existingAnthills[0] || !existingAnthills[1]); c++){
-				current = this.cells[r][c];
+				current = index(r, c);
 				if(!existingAnthills[0]){
-					if(current.getAnthill() == 1){
+					if(this.anthill[current] == 1){
 						existingAnthills[0] = true;
 						anthillLocs[0][0] = r;
 						anthillLocs[0][1] = c;
 					}
 				}
 				if(!existingAnthills[1]){
-					if(current.getAnthill() == 2){
+					if(this.anthill[current] == 2){
 						existingAnthills[1] = true;
 						anthillLocs[1][0] = r;
 						anthillLocs[1][1] = c;
@@ -294,12 +344,12 @@ public class World implements Cloneable {
 		anthillSideLengthLoop:
 			for(r = 0; r < this.rows; r++){
 				for(c = 0; c < this.cols; c++){
-					current = this.cells[r][c];
+					current = index(r, c);
 					
-					if(current.getAnthill() != 0){
-						anthillType = current.getAnthill();
+					if(this.anthill[current] != 0){
+						anthillType = this.anthill[current];
 						for(lenC = c + 1; lenC < this.cols; lenC++){
-							if(this.cells[r][lenC].getAnthill() != anthillType){
+							if(this.anthill[index(r, lenC)] != anthillType){
 								break anthillSideLengthLoop;
 							}
 						}
@@ -336,12 +386,12 @@ public class World implements Cloneable {
 			for(r = 0; r < this.rows; r++){
 				for(c = 0; c < this.cols; c++){
 					if(anthillAreas[r][c] != 0){
-						if(this.cells[r][c].getAnthill() != anthillAreas[r][c]){
+						if(this.anthill[index(r, c)] != anthillAreas[r][c]){
 							anthillAreaConsistency = false;
 							break anthillAreaLoop;
 						}
 					}else{
-						if(this.cells[r][c].getAnthill() != 0){
+						if(this.anthill[index(r, c)] != 0){
 							anthillAreaConsistency = false;
 							break anthillAreaLoop;
 						}
@@ -363,15 +413,14 @@ public class World implements Cloneable {
 				for(; r < this.rows; r++){
 					for(c = 0; c < this.cols; c++){
 						if(!foodBlobAreas[r][c]){
-							current = this.cells[r][c];
-							currentFood = current.foodCount();
+							currentFood = this.food[index(r, c)];
 							if(currentFood > 0){
 								foodBlobCount++;
 								if(foodBlobCellFoodCount == -1){
 									foodBlobCellFoodCount = currentFood;
 								}
 								for(lenC = c + 1; lenC < this.cols; lenC++){
-									if(!this.cells[r][lenC].hasFood()){
+									if(this.food[index(r, lenC)] == 0){
 										break;
 									}
 								}
@@ -396,12 +445,12 @@ public class World implements Cloneable {
 			for(r = 0; r < this.rows; r++){
 				for(c = 0; c < this.cols; c++){
 					if(foodBlobAreas[r][c]){
-						if(this.cells[r][c].foodCount() != this.foodBlobCellFoodCount){
+						if(this.food[index(r, c)] != this.foodBlobCellFoodCount){
 							foodBlobAreaConsistency = false;
 							break foodBlobAreaConsistencyLoop;
 						}
 					}else{
-						if(this.cells[r][c].hasFood()){
+						if(this.food[index(r, c)] > 0){
 							foodBlobAreaConsistency = false;
 							break foodBlobAreaConsistencyLoop;
 						}
@@ -411,35 +460,36 @@ public class World implements Cloneable {
 		this.foodBlobAreaConsistency = foodBlobAreaConsistency;
 		
 		//check minimum gap
-		Cell neighbour;
+		int neighbour;
 		int gap = 1;
 		gapCheck:
 			for(r = 1; r < this.rows - 1; r++){
 				for(c = 1; c < this.cols - 1; c++){
-					current = this.cells[r][c];
-					if(current.getAnthill() != 0){
-						anthillType = current.getAnthill();
+					current = index(r, c);
+					if(this.anthill[current] != 0){
+						anthillType = this.anthill[current];
 						for(int i = 0; i < 6; i++){
-							neighbour = current.getNeighbour(i);
-							if(neighbour.isRocky() ||
-								(neighbour.getAnthill() != 0
-								&& neighbour.getAnthill() != anthillType)){
+							neighbour = getNeighbour(current, i);
+							if(this.rocky[neighbour] ||
+								(this.anthill[neighbour] != 0
+								&& this.anthill[neighbour] != anthillType)){
 								gap = 0;
 								break gapCheck;
 							}
 						}
-					}else if(current.hasFood()){
+					}else if(this.food[current] > 0){
 						for(int i = 0; i < 6; i++){
-							neighbour = current.getNeighbour(i);
-							if(neighbour.isRocky() || neighbour.getAnthill() != 0){
+							neighbour = getNeighbour(current, i);
+							if(this.rocky[neighbour] || this.anthill[neighbour] != 0){
 								gap = 0;
 								break gapCheck;
 							}
 						}
-					}else if(current.isRocky()){
+					}else if(this.rocky[current]){
 						for(int i = 0; i < 6; i++){
-							neighbour = current.getNeighbour(i);
-							if(neighbour.isRocky() || neighbour.hasFood() || neighbour.getAnthill() != 0){
+							neighbour = getNeighbour(current, i);
+							if(this.rocky[neighbour] || this.food[neighbour] > 0
+								|| this.anthill[neighbour] != 0){
 								gap = 0;
 								break gapCheck;
 							}
@@ -451,19 +501,16 @@ public class World implements Cloneable {
 		
 		this.antInitialDirection = 0;
 		
-		for(r = 0; r < this.rows; r++){
-			for(c = 0; c < this.cols; c++){
-				this.cells[r][c].setupMarkers(this.anthills);
-			}
-		}
-		
+		this.terrain = new Terrain(this.rows, this.cols, this.rocky, this.anthill, this.food);
 		createAnts();
+		this.startState = this.ran.getState();
 	}
 	
 	private World(int seed, int rows, int cols, int rocks, boolean rockAreaConsistency,
 		boolean borderRocks, int anthills, int anthillSideLength, boolean anthillAreaConsistency,
 		int foodBlobCount, int foodBlobSideLength, int foodBlobCellFoodCount,
-		boolean foodBlobAreaConsistency, int antInitialDirection, int gap, Cell[][] cells, SoundPlayer soundPlayer) {
+		boolean foodBlobAreaConsistency, int antInitialDirection, int gap,
+		Terrain terrain, SoundPlayer soundPlayer) {
 		this.seed = seed;
 		this.ran = new Random(seed);
 		this.rows = rows;
@@ -480,22 +527,42 @@ public class World implements Cloneable {
 		this.foodBlobAreaConsistency = foodBlobAreaConsistency;
 		this.antInitialDirection = antInitialDirection;
 		this.gap = gap;
-		this.cells = cells;
 		this.soundPlayer = soundPlayer;
-
-		for(int r = this.rows - 1; r >= 0; r--){
-			for(int c = this.cols - 1; c >= 0; c--){
-				Cell current = cells[r][c];
-				try {
-					current.setNeighbours(getNeighbours(current));
-				} catch (IllegalArgumentEvent e) {
-					Logger.log(e);
-				}
-				current.setupMarkers(this.anthills);
-			}
-		}
+		
+		//Share the terrain, only copy what changes during a game
+		this.cellCount = rows * cols;
+		this.terrain = terrain;
+		this.rocky = terrain.getRocky();
+		this.anthill = terrain.getAnthill();
+		this.neighbours = terrain.getNeighbours();
+		this.food = terrain.getFood().clone();
+		this.flags = terrain.getFlags().clone();
+		this.antAt = new int[this.cellCount];
+		System.arraycopy(terrain.getAnthillFood(), 0, this.anthillFood, 0, this.anthillFood.length);
 		
 		createAnts();
+		this.startState = this.ran.getState();
+	}
+	
+	/**
+	 *  reset
+	 *  to return this World to the state it was in when it was built,
+	 * so it can be reused for another game instead of building a new World,
+	 * the terrain holds the starting food and flags, which are copied back,
+	 * and the Ants are put back onto their anthills, keeping their Brains,
+	 * the game played after a reset is identical to the first one
+	 */
+	public void reset() {
+		System.arraycopy(this.terrain.getFood(), 0, this.food, 0, this.cellCount);
+		System.arraycopy(this.terrain.getFlags(), 0, this.flags, 0, this.cellCount);
+		System.arraycopy(this.terrain.getAnthillFood(), 0, this.anthillFood, 0, this.anthillFood.length);
+		this.ran.setState(this.startState);
+		this.round = 0;
+		
+		for(int uid = 0; uid < this.ants.length; uid++){
+			this.ants[uid].reset(this.antInitialDirection, this.antStartCells[uid]);
+		}
+		placeAnts();
 	}
 	
 	/**
@@ -601,25 +668,25 @@ public class World implements Cloneable {
 		//First column
 		c = 0;
 		for(r = 0; r < this.rows; r++){
-			this.cells[r][c].setCell('#');
+			setCell(index(r, c), '#');
 		}
 		
 		//Last column
 		c = this.cols - 1;
 		for(r = 0; r < this.rows; r++){
-			this.cells[r][c].setCell('#');
+			setCell(index(r, c), '#');
 		}
 		
 		//First row
 		r = 0;
 		for(c = 0; c < this.cols; c++){
-			this.cells[r][c].setCell('#');
+			setCell(index(r, c), '#');
 		}
 		
 		//Last row
 		r = this.rows - 1;
 		for(c = 0; c < this.cols; c++){
-			this.cells[r][c].setCell('#');
+			setCell(index(r, c), '#');
 		}
 		
 		return true;
@@ -637,44 +704,16 @@ public class World implements Cloneable {
 			return false;
 		}
 		
-		Cell centre = this.cells[row][col];
-		setHexRecurse(centre, 0, sideLength, ch);
-		return true;
-	}
-	
-	/**
-	 * @param cell
-	 * @param recurseNum
-	 * @param recurseDepth
-	 * @param ch
-	 * @throws IllegalArgumentEvent 
-	 */
-	private void setHexRecurse(Cell cell, int recurseNum, int recurseDepth, char ch) throws IllegalArgumentEvent {
-		//Need both checks to allow for hexes
-		//containing elements on first or last rows or columns
-		//and hexes with side length 0
-		
-		//Don't set if over required length
-		if(recurseNum > recurseDepth - 1){
-			return;
-		}
-		
-		//The check is probably slightly more efficient
-		//than overwriting identical values
-		if(cell.toChar() != ch){
-			cell.setCell(ch);
-		}
-		
-		//Don't recurse if next recurse will take side length over required length
-		if(recurseNum > recurseDepth - 2){
-			return;
-		}
-		
-		//Sets hexes multiple times, inefficient
-		Cell[] neighbours = getNeighbours(cell);
-		for(Cell neighbour : neighbours){
-			setHexRecurse(neighbour, recurseNum + 1, recurseDepth, ch);
+		//Every cell less than sideLength steps from the centre
+		int radius = sideLength - 1;
+		int start;
+		for(int r = row - radius; r <= row + radius; r++){
+			start = hexRowStart(row, col, radius, r);
+			for(int c = start; c < start + hexRowLength(row, radius, r); c++){
+				setCell(index(r, c), ch);
+			}
 		}
+		return true;
 	}
 	
 	/**
@@ -696,7 +735,7 @@ public class World implements Cloneable {
 		
 		for(r = row; r < row + height; r++){
 			for(c = col; c < col + width; c++){
-				this.cells[r][c].setCell(ch);
+				setCell(index(r, c), ch);
 			}
 		}
 		return true;
@@ -714,7 +753,7 @@ public class World implements Cloneable {
 			return false;
 		}
 		
-		this.cells[row][col].setCell(ch);
+		setCell(index(row, col), ch);
 		return true;
 	}
 	
@@ -728,7 +767,7 @@ public class World implements Cloneable {
 		//First column + gap
 		for(c = 0; c < gap + 1; c++){
 			for(r = 0; r < this.rows; r++){
-				if(this.cells[r][c].toChar() != ch){
+				if(toChar(index(r, c)) != ch){
 					return false;
 				}
 			}
@@ -737,7 +776,7 @@ public class World implements Cloneable {
 		//Last column + gap
 		for(c = this.cols - 1 - gap; c < this.cols; c++){
 			for(r = 0; r < this.rows; r++){
-				if(this.cells[r][c].toChar() != ch){
+				if(toChar(index(r, c)) != ch){
 					return false;
 				}
 			}
@@ -745,7 +784,7 @@ public class World implements Cloneable {
 		//First row + gap
 		for(r = 0; r < gap + 1; r++){
 			for(c = 0; c < this.cols; c++){
-				if(this.cells[r][c].toChar() != ch){
+				if(toChar(index(r, c)) != ch){
 					return false;
 				}
 			}
@@ -754,7 +793,7 @@ public class World implements Cloneable {
 		//Last row + gap
 		for(r = this.rows - 1 - gap; r < this.rows; r++){
 			for(c = 0; c < this.cols; c++){
-				if(this.cells[r][c].toChar() != ch){
+				if(toChar(index(r, c)) != ch){
 					return false;
 				}
 			}
@@ -772,76 +811,19 @@ public class World implements Cloneable {
 	 * @param set
 	 * @return
 	 */
-	private void setHexBool(int r, int c, int anthillSideLength, char ch,
+	private void setHexBool(int row, int col, int anthillSideLength, char ch,
 		int[][] anthillAreas, int set){
 		
-		setHexBoolRecurse(r, c, 0, anthillSideLength, ch, anthillAreas, set);
-	}
-	
-	/**
-	 * @param row
-	 * @param col
-	 * @param recurseNum
-	 * @param recurseDepth
-	 * @param ch
-	 * @param set
-	 */
-	private void setHexBoolRecurse(int r, int c, int recurseNum, int recurseDepth, char ch,
-		int[][] anthillAreas, int set) {
-		//Don't set if over required length
-		if(recurseNum > recurseDepth - 1){
-			return;
-		}
-		
-		//The check is probably slightly more efficient
-		//than overwriting identical values
-		if(anthillAreas[r][c] != set){
-			anthillAreas[r][c] = set;
-		}
-		
-		//Don't recurse if next recurse will take side length over required length
-		if(recurseNum > recurseDepth - 2){
-			return;
-		}
-		
-		//Set neighbours
-		int k = r % 2;
-		//Clockwise from east
-		try{
-			setHexBoolRecurse(r, c + 1, recurseNum + 1, recurseDepth,
-				ch, anthillAreas, set); //east
-		}catch(ArrayIndexOutOfBoundsException e){
-			//Neighbour[i] is off the edge of the world
-		}
-		try{
-			setHexBoolRecurse(r + 1, c + k, recurseNum + 1, recurseDepth,
-				ch, anthillAreas, set); //south-east
-		}catch(ArrayIndexOutOfBoundsException e){
-			//Neighbour[i] is off the edge of the world
-		}
-		try{
-			setHexBoolRecurse(r + 1, c - 1 + k, recurseNum + 1, recurseDepth,
-				ch, anthillAreas, set); //south-west
-		}catch(ArrayIndexOutOfBoundsException e){
-			//Neighbour[i] is off the edge of the world
-		}
-		try{
-			setHexBoolRecurse(r, c - 1, recurseNum + 1, recurseDepth,
-				ch, anthillAreas, set); //west
-		}catch(ArrayIndexOutOfBoundsException e){
-			//Neighbour[i] is off the edge of the world
-		}
-		try{
-			setHexBoolRecurse(r - 1, c - 1 + k, recurseNum + 1, recurseDepth,
-				ch, anthillAreas, set); //north-west
-		}catch(ArrayIndexOutOfBoundsException e){
-			//Neighbour[i] is off the edge of the world
-		}
-		try{
-			setHexBoolRecurse(r - 1, c + k, recurseNum + 1, recurseDepth,
-				ch, anthillAreas, set); //north-east
-		}catch(ArrayIndexOutOfBoundsException e){
-			//Neighbour[i] is off the edge of the world
+		//Cells off the edge of the World are left out
+		int radius = anthillSideLength - 1;
+		int start;
+		for(int r = row - radius; r <= row + radius; r++){
+			start = hexRowStart(row, col, radius, r);
+			for(int c = start; c < start + hexRowLength(row, radius, r); c++){
+				if(inWorld(r, c)){
+					anthillAreas[r][c] = set;
+				}
+			}
 		}
 	}
 	
@@ -862,40 +844,46 @@ public class World implements Cloneable {
 	 * @return
 	 */
 	private boolean checkHex(int row, int col, int sideLength, int gap, char ch) {
-			Cell centre = this.cells[row][col];
-			
-			try{
-				return checkHexRecurse(centre, 0, sideLength + gap, ch);
-			}catch(ArrayIndexOutOfBoundsException e){
-				return false;
+		//Every cell less than (sideLength + gap) steps from the centre,
+		//including the centre, must be in the World and clear
+		int radius = Math.max(sideLength + gap - 1, 0);
+		int start;
+		for(int r = row - radius; r <= row + radius; r++){
+			start = hexRowStart(row, col, radius, r);
+			for(int c = start; c < start + hexRowLength(row, radius, r); c++){
+				if(!inWorld(r, c) || toChar(index(r, c)) != ch){
+					return false;
+				}
 			}
 		}
-		
+		return true;
+	}
+	
 	/**
-	 * @param cell
-	 * @param recurseNum
-	 * @param recurseDepth
-	 * @return
+	 * The cells no more than radius steps from a centre cell form a hex,
+	 * which is a run of cells in each row it covers, so hexes are visited
+	 * row by row, visiting each cell once
+	 * @param row of centre hex
+	 * @param col of centre hex
+	 * @param radius the most steps a cell can be from the centre
+	 * @param r a row no more than radius rows from the centre
+	 * @return the column of the first cell of the hex in row r
 	 */
-	private boolean checkHexRecurse(Cell cell, int recurseNum, int recurseDepth, char ch) {
-		if(cell == null || cell.toChar() != '.'){
-			return false;
-		}
-		
-		//Don't recurse if next recurse will take side length over required length
-		if(recurseNum > recurseDepth - 2){
-			return true;
-		}
-		
-		//Sets hexes multiple times, inefficient
-		Cell[] neighbours = getNeighbours(cell);
-		int i = 0;
-		for(i = 0; i < neighbours.length; i++){
-			if(!checkHexRecurse(neighbours[i], recurseNum + 1, recurseDepth, ch)){
-				return false;
-			}
-		}
-		return true;
+	private static int hexRowStart(int row, int col, int radius, int r) {
+		//Every second row is indented, starting at row 1, so shift columns
+		//to axial coordinates, where the hex is a rhombus with 2 corners cut off
+		int q = col - ((row - (row & 1)) / 2);
+		return q + Math.max(-radius, row - r - radius) + ((r - (r & 1)) / 2);
+	}
+	
+	/**
+	 * @param row of centre hex
+	 * @param radius the most steps a cell can be from the centre
+	 * @param r a row no more than radius rows from the centre
+	 * @return the number of cells of the hex in row r
+	 */
+	private static int hexRowLength(int row, int radius, int r) {
+		return (2 * radius) + 1 - Math.abs(r - row);
 	}
 	
 	/**
@@ -909,16 +897,13 @@ public class World implements Cloneable {
 		int r = 0;
 		int c = 0;
 		
-		try{
-			for(r = row - this.gap; r < row + height + this.gap; r++){
-				for(c = col - this.gap; c < col + width + this.gap; c++){
-					if(this.cells[r][c].toChar() != ch){
-						return false;
-					}
+		for(r = row - this.gap; r < row + height + this.gap; r++){
+			for(c = col - this.gap; c < col + width + this.gap; c++){
+				//Indexes wrap onto the next row, so check the bounds explicitly
+				if(!inWorld(r, c) || toChar(index(r, c)) != ch){
+					return false;
 				}
 			}
-		}catch(ArrayIndexOutOfBoundsException e){
-			return false;
 		}
 		
 		return true;
@@ -935,7 +920,7 @@ public class World implements Cloneable {
 		
 		for(r = row - this.gap; r <= row + this.gap; r++){
 			for(c = col - this.gap; c <= col + this.gap; c++){
-				if(this.cells[r][c].toChar() != '.'){
+				if(!inWorld(r, c) || toChar(index(r, c)) != '.'){
 					return false;
 				}
 			}
@@ -948,23 +933,20 @@ public class World implements Cloneable {
 	 */
 	private void createAnts() {
 		this.ran.reset();
+		this.adjacentAnts = new byte[this.cellCount * this.anthills];
 		
-		Cell cell;
+		int cell;
 		Ant ant = null;
 		int colour;
 		int black = 0;
 		int red = 0;
 		int uid = 0;
 		
-		for(int r = 0; r < this.rows; r++){
-			for(int c = 0; c < this.cols; c++){
-				cell = this.cells[r][c];
-				
-				if(cell.toChar() == '+'){
-					black++;
-				}else if(cell.toChar() == '-'){
-					red++;
-				}
+		for(cell = 0; cell < this.cellCount; cell++){
+			if(toChar(cell) == '+'){
+				black++;
+			}else if(toChar(cell) == '-'){
+				red++;
 			}
 		}
 		
@@ -974,15 +956,19 @@ public class World implements Cloneable {
 		this.antsBySpecies[1] = new Ant[red];
 		int[] nextAntIndex = {0, 0};
 		
+		this.antStartCells = new int[black + red];
+		this.livingAnts = new int[this.anthills];
+		this.antsWithFood = new int[this.anthills];
+		
 		//Put new ants onto each anthill cell, and into the right arrays
 		for(int r = 1; r < this.rows - 1; r++){
 			for(int c = 1; c < this.cols - 1; c++){
 				colour = -1;
-				cell = this.cells[r][c];
+				cell = index(r, c);
 				
-				if(cell.toChar() == '+'){
+				if(toChar(cell) == '+'){
 					colour = 0;
-				}else if(cell.toChar() == '-'){
+				}else if(toChar(cell) == '-'){
 					colour = 1;
 				}else{
 					continue;
@@ -990,12 +976,13 @@ public class World implements Cloneable {
 				
 				//Create and store ant
 				try {
-					ant = new Ant(uid, this.ran, this.antInitialDirection, colour, cell, this.soundPlayer);
+					ant = new Ant(uid, this.ran, this.antInitialDirection, colour, this, cell, this.soundPlayer);
 				} catch (IllegalArgumentEvent e) {
 					Logger.log(e);
 				}
-				cell.setAnt(ant);
-				this.ants[nextAntIndex[0] + nextAntIndex[1]] = ant;
+				//Ants are stored in UID order, so ants[uid] is the Ant with that UID
+				this.ants[uid] = ant;
+				this.antStartCells[uid] = cell;
 				//Use nextAntIndex[colour] value BEFORE increment (opposite to ++i)
 				this.antsBySpecies[colour][nextAntIndex[colour]++] = ant;
 				
@@ -1003,40 +990,36 @@ public class World implements Cloneable {
 			}
 		}
 		
-//		//ArrayList version
-//		//More efficient to store pointers to each ArrayList than get every time
-//		ArrayList<Ant> species0 = new ArrayList<Ant>();
-//		ArrayList<Ant> species1 = new ArrayList<Ant>();
-//		this.antsBySpecies.add(species0);
-//		this.antsBySpecies.add(species1);
-//		
-//		//Put new ants onto each anthill cell, and into the right arrays
-//		for(r = 0; r < this.rows; r++){
-//			for(c = 0; c < this.cols; c++){
-//				colour = -1;
-//				cell = this.cells[r][c];
-//				
-//				if(cell.toChar() == '+'){
-//					colour = 0;
-//				}else if(cell.toChar() == '-'){
-//					colour = 1;
-//				}else{
-//					continue;
-//				}
-//				
-//				//Create and store ant
-//				ant = new Ant(uid, this.ran, this.antInitialDirection, colour, cell);
-//				cell.setAnt(ant);
-//				this.ants.add(ant);
-//				if(colour == 0){
-//					species0.add(ant);
-//				}else if(colour == 1){
-//					species1.add(ant);
-//				}
-//				
-//				uid++;
-//			}
-//		}
+		int words = (this.ants.length + 63) / 64;
+		this.awake = new long[words];
+		this.wakeWheel = new long[Ant.moveRest + 2][words];
+		placeAnts();
+	}
+	
+	/**
+	 * Puts every Ant onto its starting cell, with all the Ants alive, awake
+	 * and without food, used by createAnts and reset
+	 */
+	private void placeAnts() {
+		Arrays.fill(this.antAt, -1);
+		Arrays.fill(this.adjacentAnts, (byte) 0);
+		for(int uid = 0; uid < this.ants.length; uid++){
+			setAnt(this.antStartCells[uid], this.ants[uid]);
+		}
+		
+		for(int species = 0; species < this.anthills; species++){
+			this.livingAnts[species] = this.antsBySpecies[species].length;
+			this.antsWithFood[species] = 0;
+		}
+		
+		//All Ants start awake
+		for(long[] slot : this.wakeWheel){
+			Arrays.fill(slot, 0);
+		}
+		Arrays.fill(this.awake, 0);
+		for(int uid = 0; uid < this.ants.length; uid++){
+			this.awake[uid >> 6] |= 1L << uid;
+		}
 	}
 	
 	/**
@@ -1060,30 +1043,69 @@ public class World implements Cloneable {
 	/**
 	 *  setBrain
 	 *  to set the Brain of the Ants of the species specified to the
-	 * given Brain
+	 * given Brain, the Brain is compiled once and shared by all the Ants
 	 * @param brain the Brain to set
 	 * @param i the species of Ant to set
 	 */
 	public void setBrain(Brain brain, int i) {
+		if(brain == null){
+			Logger.log(new IllegalArgumentEvent("null Brain argument in World setBrain"));
+			return;
+		}
+		CompiledBrain compiledBrain = new CompiledBrain(brain);
 		for(Ant ant : this.antsBySpecies[i]){
-			try{
-				ant.setBrain(brain);
-			}catch(NullPointerException e){
-				System.out.println(ant);
-				e.printStackTrace();
-			}
+			ant.setBrain(compiledBrain);
 		}
 	}
 	
 	/**
 	 *  getCells
-	 *  to get the Cell array of this World.
+	 *  to get the Cell array of this World, the Cells are views of the
+	 * World's arrays, so they are created the first time they are asked for,
+	 * and always show the current state of the World
 	 * @return the Cell array of this World
 	 */
-	public Cell[][] getCells() {
+	public synchronized Cell[][] getCells() {
+		if(this.cells == null){
+			Cell[][] cells = new Cell[this.rows][this.cols];
+			for(int r = 0; r < this.rows; r++){
+				for(int c = 0; c < this.cols; c++){
+					cells[r][c] = new WorldCell(this, index(r, c), r, c);
+				}
+			}
+			
+			//Neighbours of border cells off the edge of the World are null
+			Cell[] neighbours;
+			int neighbour;
+			for(int cell = 0; cell < this.cellCount; cell++){
+				neighbours = new Cell[6];
+				for(int i = 0; i < 6; i++){
+					neighbour = getNeighbour(cell, i);
+					if(neighbour != -1){
+						neighbours[i] = cells[neighbour / this.cols][neighbour % this.cols];
+					}
+				}
+				try {
+					cells[cell / this.cols][cell % this.cols].setNeighbours(neighbours);
+				} catch (IllegalArgumentEvent e) {
+					Logger.log(e);
+				}
+			}
+			this.cells = cells;
+		}
 		return this.cells;
 	}
 	
+	/**
+	 *  getCell
+	 *  to get the Cell view of a cell index
+	 * @param cell the index of the cell
+	 * @return the Cell at that index
+	 */
+	Cell getCell(int cell) {
+		return getCells()[cell / this.cols][cell % this.cols];
+	}
+	
 	/**
 	 *  getChars
 	 *  to get the char array version of this World's Cells
@@ -1093,7 +1115,7 @@ public class World implements Cloneable {
 		char[][] chars = new char[this.rows][this.cols];
 		for(int r = 0; r < this.rows; r++){
 			for(int c = 0; c < this.cols; c++){
-				chars[r][c] = this.cells[r][c].toChar();
+				chars[r][c] = toChar(index(r, c));
 			}
 		}
 		return chars;
@@ -1128,24 +1150,204 @@ public class World implements Cloneable {
 		return this.round;
 	}
 	
+	/**
+	 *  hasLivingAnts
+	 *  to check whether any Ant is still alive, once none are, stepping the
+	 * World changes nothing but the round
+	 * @return true if an Ant of any species is alive
+	 */
+	public boolean hasLivingAnts() {
+		for(int living : this.livingAnts){
+			if(living > 0) return true;
+		}
+		return false;
+	}
+	
 	/**
 	 *  step
 	 *  permits each Ant in the World to perform one step, in order of
 	 * UID, so from top left to bottom right, horizontally first
 	 */
 	public void step() {
-		for(Ant ant : this.ants){
-			ant.step();
+		//Ants woken this round join the awake Ants
+		long[] waking = this.wakeWheel[this.round % this.wakeWheel.length];
+		for(int word = 0; word < this.awake.length; word++){
+			this.awake[word] |= waking[word];
+			waking[word] = 0;
+		}
+		
+		if(this.stepper != null){
+			stepParallel();
+			return;
+		}
+		
+		//Bits are visited lowest first, which is UID order,
+		//so the result is identical to stepping every Ant in ants
+		long bits;
+		int uid;
+		Ant ant;
+		for(int word = 0; word < this.awake.length; word++){
+			bits = this.awake[word];
+			while(bits != 0){
+				uid = (word << 6) + Long.numberOfTrailingZeros(bits);
+				bits &= bits - 1;
+				ant = this.ants[uid];
+				
+				//A sleeping Ant has done all of its resting when it is woken,
+				//and an awake Ant is not resting
+				ant.wake();
+				ant.step();
+				
+				if(!ant.isAlive()){
+					this.awake[word] &= ~(1L << uid);
+				}else if(ant.getRest() > 0){
+					//Rests for the next getRest() rounds, acts in the one after
+					this.awake[word] &= ~(1L << uid);
+					this.wakeWheel[(this.round + ant.getRest() + 1) % this.wakeWheel.length][word]
+						|= 1L << uid;
+				}
+			}
+		}
+		this.round++;
+	}
+	
+	/**
+	 *  setStepThreads
+	 *  to step the Ants of this World on several threads, which gives
+	 * exactly the same game as stepping them on one, the rows of the World
+	 * are split between the threads, so only large Worlds are worth it,
+	 * the threads must be stopped by setting 1 thread once the game is over,
+	 * and the World must not be played with a SoundPlayer meanwhile
+	 * @param threads the number of threads to step Ants on, including the
+	 * thread calling step(), fewer are used if the World has too few rows
+	 */
+	public void setStepThreads(int threads) {
+		if(this.stepper != null){
+			this.stepper.stop();
+			this.stepper = null;
+		}
+		if(ParallelStepper.getStripes(this.rows, threads) > 1){
+			this.stepAnts = new int[this.ants.length];
+			this.stepper = new ParallelStepper(this.ants, this.rows, this.cols, threads);
+		}
+	}
+	
+	/**
+	 *  getStepThreads
+	 *  to get the number of threads the Ants of this World are stepped on
+	 * @return 1, unless set otherwise by setStepThreads()
+	 */
+	public int getStepThreads() {
+		if(this.stepper == null){
+			return 1;
+		}
+		return this.stepper.getThreads();
+	}
+	
+	/**
+	 * Steps the awake Ants with the ParallelStepper, then makes the flips it
+	 * left, in UID order, and schedules the Ants as step() does
+	 */
+	private void stepParallel() {
+		int count = 0;
+		long bits;
+		for(int word = 0; word < this.awake.length; word++){
+			bits = this.awake[word];
+			while(bits != 0){
+				this.stepAnts[count++] = (word << 6) + Long.numberOfTrailingZeros(bits);
+				bits &= bits - 1;
+			}
+		}
+		
+		this.stepper.step(this.stepAnts, count);
+		for(int uid : this.stepper.getFlips()){
+			this.ants[uid].flip();
+		}
+		
+		int uid;
+		int word;
+		Ant ant;
+		for(int i = 0; i < count; i++){
+			uid = this.stepAnts[i];
+			word = uid >> 6;
+			ant = this.ants[uid];
+			//As in step(), an Ant killed after its turn is dropped next round
+			if(!this.stepper.isAliveAfterTurn(uid)){
+				this.awake[word] &= ~(1L << uid);
+			}else if(ant.getRest() > 0){
+				this.awake[word] &= ~(1L << uid);
+				this.wakeWheel[(this.round + ant.getRest() + 1) % this.wakeWheel.length][word]
+					|= 1L << uid;
+			}
 		}
 		this.round++;
 	}
 	
 	/**
-	 * @param c
-	 * @return 6 neighbours, if the cell is on the edge of the map some neighbours WILL BE NULL
+	 *  sameState
+	 *  to check whether the game in this World is at exactly the same point
+	 * as the game in another World of the same size, used to check that
+	 * different ways of stepping give identical games
+	 * @param world the World to compare to
+	 * @return true if the round, Random, cells, scoreboard, scheduler and
+	 * every Ant are the same
 	 */
-	private Cell[] getNeighbours(Cell cell) {
-		Cell[] neighbours = new Cell[6];
+	boolean sameState(World world) {
+		if(this.round != world.round
+			|| this.ran.getState() != world.ran.getState()
+			|| !Arrays.equals(this.food, world.food)
+			|| !Arrays.equals(this.flags, world.flags)
+			|| !Arrays.equals(this.antAt, world.antAt)
+			|| !Arrays.equals(this.adjacentAnts, world.adjacentAnts)
+			|| !Arrays.equals(this.anthillFood, world.anthillFood)
+			|| !Arrays.equals(this.livingAnts, world.livingAnts)
+			|| !Arrays.equals(this.antsWithFood, world.antsWithFood)
+			|| !Arrays.equals(this.awake, world.awake)
+			|| !Arrays.deepEquals(this.wakeWheel, world.wakeWheel)
+			|| this.ants.length != world.ants.length){
+			return false;
+		}
+		Ant ant;
+		Ant other;
+		for(int uid = 0; uid < this.ants.length; uid++){
+			ant = this.ants[uid];
+			other = world.ants[uid];
+			if(ant.getCellIndex() != other.getCellIndex()
+				|| ant.isAlive() != other.isAlive()
+				|| ant.getDirection() != other.getDirection()
+				|| ant.hasFood() != other.hasFood()
+				|| ant.getRest() != other.getRest()
+				|| ant.getState() != other.getState()){
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * @param row
+	 * @param col
+	 * @return the index of the cell at row and col
+	 */
+	private int index(int row, int col) {
+		return (row * this.cols) + col;
+	}
+	
+	/**
+	 * @param row
+	 * @param col
+	 * @return true if row and col are inside the World
+	 */
+	private boolean inWorld(int row, int col) {
+		return row >= 0 && row < this.rows && col >= 0 && col < this.cols;
+	}
+	
+	/**
+	 * @param cell
+	 * @return 6 neighbours, if the cell is on the edge of the map some neighbours WILL BE -1
+	 */
+	private int[] getNeighbours(int cell) {
+		int[] neighbours = new int[6];
 		int i = 0;
 
 		//Clockwise from east
@@ -1157,68 +1359,403 @@ public class World implements Cloneable {
 	}
 	
 	/**
-	 * @param cell
-	 * @param i
-	 * @return
+	 *  getNeighbour
+	 *  to get the index of a cell neighbouring the cell given
+	 * @param cell the index of the cell
+	 * @param direction the direction of the neighbour, between -1 and 6
+	 * @return the index of the neighbour, or -1 if it is off the edge of the
+	 * World
 	 */
-	private Cell getNeighbour(Cell cell, int i) {
-		Cell neighbour = null;
-		int r = cell.getRow();
-		int c = cell.getCol();
-		//Subtract indent from calculations
-		//0 if row is unindented, 1 if row is indented
-		//Neighbours of border cells off the edge of the World are null
-		int k = r % 2;
-		
-		switch(i){
-		//Clockwise from east
-		case 0:
-			try{
-				neighbour = this.cells[r    ][c + 1    ]; //east
-			}catch(ArrayIndexOutOfBoundsException e){
-				//Neighbour[i] is off the edge of the world, set to null
-			}
+	final int getNeighbour(int cell, int direction) {
+		return this.neighbours[(cell * 6) + NeighbourTable.direction(direction)];
+	}
+	
+	/**
+	 *  setCell
+	 *  to change the attributes of a cell, in the same way as Cell.setCell
+	 * @param cell the index of the cell
+	 * @param ch the new format of the cell
+	 * @throws IllegalArgumentEvent if ch is not a valid character
+	 */
+	final void setCell(int cell, char ch) throws IllegalArgumentEvent {
+		//No char gives an anthill cell food, so only food removed must be counted
+		if(this.anthill[cell] != 0){
+			this.anthillFood[this.anthill[cell] - 1] -= this.food[cell];
+		}
+		if(ch > 48 && ch < 58){ //'0 to 9' in ascii
+			this.rocky[cell] = false;
+			this.food[cell] = ch - 48;
+			this.anthill[cell] = 0;
+			setTerrainFlags(cell);
+			return;
+		}
+		switch(ch) {
+		case '#':
+			this.rocky[cell] = true;
+			this.food[cell] = 0;
+			this.anthill[cell] = 0;
 			break;
-		case 1:
-			try{
-				neighbour = this.cells[r + 1][c + k    ]; //south-east
-			}catch(ArrayIndexOutOfBoundsException e){
-				//Neighbour[i] is off the edge of the world, set to null
-			}
+		case '.':
+			this.rocky[cell] = false;
+			this.food[cell] = 0;
+			this.anthill[cell] = 0;
 			break;
-		case 2:
-			try{
-				neighbour = this.cells[r + 1][c - 1 + k]; //south-west
-			}catch(ArrayIndexOutOfBoundsException e){
-				//Neighbour[i] is off the edge of the world, set to null
-			}
+		case '+':
+			this.rocky[cell] = false;
+			this.food[cell] = 0;
+			this.anthill[cell] = 1;
 			break;
-		case 3:
-			try{
-				neighbour = this.cells[r    ][c - 1    ]; //west
-			}catch(ArrayIndexOutOfBoundsException e){
-				//Neighbour[i] is off the edge of the world, set to null
-			}
+		case '-':
+			this.rocky[cell] = false;
+			this.food[cell] = 0;
+			this.anthill[cell] = 2;
 			break;
-		case 4:
-			try{
-				neighbour = this.cells[r - 1][c - 1 + k]; //north-west
-			}catch(ArrayIndexOutOfBoundsException e){
-				//Neighbour[i] is off the edge of the world, set to null
+		default:
+			throw new IllegalArgumentEvent("Illegal argument in Cell setCell");
+		}
+		setTerrainFlags(cell);
+	}
+	
+	private void setTerrainFlags(int cell) {
+		this.flags[cell] = (this.flags[cell] & ~(foodFlag | rockFlag | homeFlags))
+			| terrainFlags(this.rocky[cell], this.food[cell], this.anthill[cell]);
+	}
+	
+	/**
+	 *  terrainFlags
+	 *  to get the flags of a cell which do not depend on Ants or markers
+	 * @param rocky whether the cell is rocky
+	 * @param food the amount of food on the cell
+	 * @param anthill 0 if no anthill, otherwise the anthill of the cell
+	 * @return the food, rock and anthill flags of the cell
+	 */
+	static int terrainFlags(boolean rocky, int food, int anthill) {
+		int flags = 0;
+		if(food > 0) flags |= foodFlag;
+		if(rocky) flags |= rockFlag;
+		if(anthill != 0) flags |= homeFlag(anthill - 1);
+		return flags;
+	}
+	
+	/**
+	 *  getFlags
+	 *  to get everything an Ant can sense in a cell
+	 * @param cell the index of the cell
+	 * @return the flags of the cell
+	 */
+	final int getFlags(int cell) {
+		return this.flags[cell];
+	}
+	
+	/**
+	 *  antFlag
+	 *  to get the flag set when an Ant of the given species is in a cell
+	 * @param species the species of Ant
+	 * @return the flag of the species
+	 */
+	static int antFlag(int species) {
+		return 1 << (antShift + species);
+	}
+	
+	/**
+	 *  antWithFoodFlag
+	 *  to get the flag set when an Ant of the given species carrying food is
+	 * in a cell
+	 * @param species the species of Ant
+	 * @return the flag of the species
+	 */
+	static int antWithFoodFlag(int species) {
+		return 1 << (antWithFoodShift + species);
+	}
+	
+	/**
+	 *  homeFlag
+	 *  to get the flag set for cells in the anthill of the given species
+	 * @param species the species of Ant
+	 * @return the flag of the species
+	 */
+	static int homeFlag(int species) {
+		return 1 << (homeShift + species);
+	}
+	
+	/**
+	 *  toChar
+	 *  to get the character representation of a cell
+	 * @param cell the index of the cell
+	 * @return a char that depends on the attributes of the cell
+	 */
+	final char toChar(int cell) {
+		return Cell.toChar(this.rocky[cell], this.food[cell], this.anthill[cell]);
+	}
+	
+	/**
+	 *  isRocky
+	 *  to get whether or not a cell is rocky
+	 * @param cell the index of the cell
+	 * @return true if the cell is rocky
+	 */
+	final boolean isRocky(int cell) {
+		return this.rocky[cell];
+	}
+	
+	/**
+	 *  foodCount
+	 *  to get the amount of food on a cell
+	 * @param cell the index of the cell
+	 * @return the amount of food on the cell
+	 */
+	final int foodCount(int cell) {
+		return this.food[cell];
+	}
+	
+	/**
+	 *  hasFood
+	 *  to get whether there is any food on a cell
+	 * @param cell the index of the cell
+	 * @return true if there is any food in the cell
+	 */
+	final boolean hasFood(int cell) {
+		return this.food[cell] > 0;
+	}
+	
+	/**
+	 *  dropFood
+	 *  to drop one food on a cell
+	 * @param cell the index of the cell
+	 */
+	final void dropFood(int cell) {
+		this.food[cell]++;
+		this.flags[cell] |= foodFlag;
+		if(this.anthill[cell] != 0){
+			count(this.anthillFood, this.anthill[cell] - 1, 1);
+		}
+	}
+	
+	/**
+	 *  pickupFood
+	 *  to remove 1 food from a cell, if there is any food in it
+	 * @param cell the index of the cell
+	 */
+	final void pickupFood(int cell) {
+		if(this.food[cell] > 0){
+			this.food[cell]--;
+			if(this.food[cell] == 0){
+				this.flags[cell] &= ~foodFlag;
 			}
-			break;
-		case 5:
-			try{
-				neighbour = this.cells[r - 1][c + k    ]; //north-east
-			}catch(ArrayIndexOutOfBoundsException e){
-				//Neighbour[i] is off the edge of the world, set to null
+			if(this.anthill[cell] != 0){
+				count(this.anthillFood, this.anthill[cell] - 1, -1);
 			}
-			break;
-		default:
-			Logger.log(new IllegalArgumentEvent("Illegal i " +
-				"argument in World getNeighbour"));
 		}
-		return neighbour;
+	}
+	
+	/**
+	 *  antPickedUpFood
+	 *  to count an Ant of the given species starting to carry food
+	 * @param cell the index of the cell the Ant is in
+	 * @param species the species of the Ant
+	 */
+	final void antPickedUpFood(int cell, int species) {
+		count(this.antsWithFood, species, 1);
+		this.flags[cell] |= antWithFoodFlag(species);
+	}
+	
+	/**
+	 *  antDroppedFood
+	 *  to count an Ant of the given species no longer carrying food
+	 * @param cell the index of the cell the Ant is in
+	 * @param species the species of the Ant
+	 */
+	final void antDroppedFood(int cell, int species) {
+		count(this.antsWithFood, species, -1);
+		this.flags[cell] &= ~antWithFoodFlag(species);
+	}
+	
+	/**
+	 *  antKilled
+	 *  to count an Ant of the given species dying, the food it drops is
+	 * counted by dropFood
+	 * @param species the species of the Ant
+	 * @param hadFood true if the Ant was carrying food
+	 */
+	final void antKilled(int species, boolean hadFood) {
+		count(this.livingAnts, species, -1);
+		if(hadFood){
+			count(this.antsWithFood, species, -1);
+		}
+	}
+	
+	/**
+	 * Changes a scoreboard counter, which Ants stepped on different threads
+	 * may change at once, see setStepThreads()
+	 * @param counter
+	 * @param index
+	 * @param change
+	 */
+	private void count(int[] counter, int index, int change) {
+		if(this.stepper == null){
+			counter[index] += change;
+		}else{
+			synchronized(counter){
+				counter[index] += change;
+			}
+		}
+	}
+	
+	/**
+	 *  getAnthill
+	 *  to return the anthill of a cell
+	 * @param cell the index of the cell
+	 * @return 0 if no anthill, otherwise the value of the anthill of the cell
+	 */
+	final int getAnthill(int cell) {
+		return this.anthill[cell];
+	}
+	
+	/**
+	 *  mark
+	 *  to set the marker of the given species at the given location to
+	 * true
+	 * @param cell the index of the cell
+	 * @param species the species Ants to set to true
+	 * @param i the location of the marker to set to true
+	 */
+	final void mark(int cell, int species, int i) {
+		this.flags[cell] |= Cell.markerBit(species, i);
+	}
+	
+	/**
+	 *  unmark
+	 *  to set the marker of the given species at the given location to
+	 * false
+	 * @param cell the index of the cell
+	 * @param species the species Ants to set to false
+	 * @param i the location of the marker to set to false
+	 */
+	final void unmark(int cell, int species, int i) {
+		this.flags[cell] &= ~Cell.markerBit(species, i);
+	}
+	
+	/**
+	 *  getMarker
+	 *  to get the value of the marker specified
+	 * @param cell the index of the cell
+	 * @param species the species of Ant of the marker to get
+	 * @param i the location of the marker to get
+	 * @return true if the marker at the given position is true
+	 */
+	final boolean getMarker(int cell, int species, int i) {
+		return (this.flags[cell] & Cell.markerBit(species, i)) != 0;
+	}
+	
+	/**
+	 *  getAnyMarker
+	 *  to return true if any of the markers of any of the other species
+	 * are true
+	 * @param cell the index of the cell
+	 * @param notSpecies the species to not check
+	 * @return true if any marker of any other species is true
+	 */
+	final boolean getAnyMarker(int cell, int notSpecies) {
+		//returns true if any marker not of species notSpecies is true
+		return (this.flags[cell] & markerFlags & ~Cell.speciesMask(notSpecies)) != 0;
+	}
+	
+	/**
+	 *  getAnt
+	 *  to get the Ant positioned on a cell
+	 * @param cell the index of the cell
+	 * @return the Ant on the cell, or null if there is none
+	 */
+	final Ant getAnt(int cell) {
+		int uid = this.antAt[cell];
+		if(uid == -1){
+			return null;
+		}
+		return this.ants[uid];
+	}
+	
+	/**
+	 *  hasAnt
+	 *  to get whether a cell is the location of an Ant
+	 * @param cell the index of the cell
+	 * @return true if there is an Ant on the cell
+	 */
+	final boolean hasAnt(int cell) {
+		return this.antAt[cell] != -1;
+	}
+	
+	/**
+	 *  setAnt
+	 *  to set the Ant positioned on a cell
+	 * @param cell the index of the cell
+	 * @param ant the Ant to put on the cell, or null to clear it
+	 */
+	final void setAnt(int cell, Ant ant) {
+		if(this.antAt[cell] != -1){
+			countAdjacent(cell, this.ants[this.antAt[cell]].getColour(), -1);
+		}
+		this.flags[cell] &= ~(antFlags | antWithFoodFlags);
+		if(ant == null){
+			this.antAt[cell] = -1;
+		}else{
+			this.antAt[cell] = ant.getUID();
+			countAdjacent(cell, ant.getColour(), 1);
+			this.flags[cell] |= antFlag(ant.getColour());
+			if(ant.hasFood()){
+				this.flags[cell] |= antWithFoodFlag(ant.getColour());
+			}
+		}
+	}
+	
+	private void countAdjacent(int cell, int species, int change) {
+		int neighbour;
+		for(int i = 0; i < 6; i++){
+			neighbour = this.neighbours[(cell * 6) + i];
+			if(neighbour != -1){
+				this.adjacentAnts[(neighbour * this.anthills) + species] += change;
+			}
+		}
+	}
+	
+	/**
+	 *  senseMasks
+	 *  to get the mask of the flags of a cell which make each Sense
+	 * condition true for an Ant of the given species
+	 * @param species the species of the sensing Ant
+	 * @return the masks, by Condition ordinal, the mask for Marker is of
+	 * marker 0, and must be shifted left by the marker sensed
+	 */
+	static int[] senseMasks(int species) {
+		int[] masks = new int[10];
+		masks[0] = antFlag(species); //FRIEND
+		masks[1] = antFlags & ~antFlag(species); //FOE
+		masks[2] = antWithFoodFlag(species); //FRIENDWITHFOOD
+		masks[3] = antWithFoodFlags & ~antWithFoodFlag(species); //FOEWITHFOOD
+		masks[4] = foodFlag; //FOOD
+		masks[5] = rockFlag; //ROCK
+		masks[6] = Cell.markerBit(species, 0); //MARKER
+		masks[7] = markerFlags & ~Cell.speciesMask(species); //FOEMARKER
+		masks[8] = homeFlag(species); //HOME
+		masks[9] = homeFlags & ~homeFlag(species); //FOEHOME
+		return masks;
+	}
+	
+	/**
+	 *  adjacentFoes
+	 *  to get the number of Ants of other species next to a cell
+	 * @param cell the index of the cell
+	 * @param species the species of Ant that the foes are not
+	 * @return the number of neighbouring cells with a foe in them
+	 */
+	final int adjacentFoes(int cell, int species) {
+		int first = cell * this.anthills;
+		int foes = 0;
+		for(int i = 0; i < this.anthills; i++){
+			if(i != species){
+				foes += this.adjacentAnts[first + i];
+			}
+		}
+		return foes;
 	}
 	
 	/**
@@ -1236,23 +1773,8 @@ public class World implements Cloneable {
 	 * @return the total amount of food in each anthill
 	 */
 	public int[] getFoodInAnthills() {
-		int[] totals = new int[this.antsBySpecies.length];
-		
-		int r = 0;
-		int c  = 0;
-		Cell current;
-		for(r = 0; r < this.rows; r++){
-			for(c = 0; c < this.cols; c++){
-				current = this.cells[r][c];
-				if(current.getAnthill() != 0){
-					if(current.hasFood()){
-						totals[this.cells[r][c].getAnthill() - 1] += current.foodCount();
-					}
-				}
-			}
-		}
-		
-		return totals;
+		if(verifyCounters) checkCounters();
+		return Arrays.copyOf(this.anthillFood, this.antsBySpecies.length);
 	}
 	
 	/**
@@ -1261,17 +1783,95 @@ public class World implements Cloneable {
 	 * @return the number of surviving ants in each species
 	 */
 	public int[] survivingAntsBySpecies() {
-		int[] survivors = new int[this.antsBySpecies.length];
-		int i = 0;
+		if(verifyCounters) checkCounters();
+		return this.livingAnts.clone();
+	}
+	
+	/**
+	 *  antsWithFoodBySpecies
+	 *  to get the number of living ants carrying food for each species
+	 * @return the number of ants carrying food in each species
+	 */
+	public int[] antsWithFoodBySpecies() {
+		if(verifyCounters) checkCounters();
+		return this.antsWithFood.clone();
+	}
+	
+	/**
+	 *  setVerifyCounters
+	 *  to turn checking of the scoreboard on or off for all Worlds, when on,
+	 * every read of the scoreboard also scans the whole World, and logs an
+	 * ErrorEvent if they differ, this is slow and only meant for debugging
+	 * @param verify true to check the scoreboard every time it is read
+	 */
+	public static void setVerifyCounters(boolean verify) {
+		verifyCounters = verify;
+	}
+	
+	/**
+	 *  checkCounters
+	 *  to compare the scoreboard, the counts of Ants next to each cell and
+	 * the flags of each cell with a scan of every cell and Ant
+	 * @return true if the scoreboard matches the World
+	 */
+	boolean checkCounters() {
+		int[] food = new int[this.antsBySpecies.length];
+		for(int cell = 0; cell < this.cellCount; cell++){
+			if(this.anthill[cell] != 0){
+				food[this.anthill[cell] - 1] += this.food[cell];
+			}
+		}
 		
-		for(i = 0; i < this.antsBySpecies.length; i++){
+		int[] living = new int[this.antsBySpecies.length];
+		int[] withFood = new int[this.antsBySpecies.length];
+		for(int i = 0; i < this.antsBySpecies.length; i++){
 			for(Ant ant : this.antsBySpecies[i]){
 				if(ant.isAlive()){
-					survivors[i]++;
+					living[i]++;
+					if(ant.hasFood()){
+						withFood[i]++;
+					}
+				}
+			}
+		}
+		
+		byte[] adjacent = new byte[this.adjacentAnts.length];
+		int neighbour;
+		for(int cell = 0; cell < this.cellCount; cell++){
+			for(int i = 0; i < 6; i++){
+				neighbour = this.neighbours[(cell * 6) + i];
+				if(neighbour != -1 && this.antAt[neighbour] != -1){
+					adjacent[(cell * this.anthills) + this.ants[this.antAt[neighbour]].getColour()]++;
 				}
 			}
 		}
-		return survivors;
+		
+		//Markers are only held in the flags, so only the other flags can be checked
+		int[] flags = new int[this.cellCount];
+		Ant ant;
+		for(int cell = 0; cell < this.cellCount; cell++){
+			flags[cell] = this.flags[cell] & markerFlags;
+			if(this.food[cell] > 0) flags[cell] |= foodFlag;
+			if(this.rocky[cell]) flags[cell] |= rockFlag;
+			if(this.anthill[cell] != 0) flags[cell] |= homeFlag(this.anthill[cell] - 1);
+			ant = getAnt(cell);
+			if(ant != null){
+				flags[cell] |= antFlag(ant.getColour());
+				if(ant.hasFood()) flags[cell] |= antWithFoodFlag(ant.getColour());
+			}
+		}
+		
+		if(!Arrays.equals(food, Arrays.copyOf(this.anthillFood, food.length))
+			|| !Arrays.equals(living, this.livingAnts)
+			|| !Arrays.equals(withFood, this.antsWithFood)
+			|| !Arrays.equals(adjacent, this.adjacentAnts)
+			|| !Arrays.equals(flags, this.flags)){
+			Logger.log(new ErrorEvent("World counters do not match World in round "
+				+ this.round + ", anthill food " + Arrays.toString(food) + ", living ants "
+				+ Arrays.toString(living) + ", ants with food " + Arrays.toString(withFood)));
+			return false;
+		}
+		return true;
 	}
 	
 	/**
@@ -1344,23 +1944,18 @@ public class World implements Cloneable {
 	 * 
 	 *  clone
 	 *  to return a copy of this World
-	 * @return a World with a cloned Cell[][], does not copy Ants, generates
+	 * @return a World sharing this World's terrain, with the food this World
+	 * started with, does not copy Ants or markers, generates
 	 * new Ants on anthills, equivilent to calling World(char[][]) with one
 	 * parsed from a file, but without the slow checks
 	 */
 	@Override
 	public Object clone() {
-		Cell[][] newCells = new Cell[this.rows][this.cols];
-		for(int r = this.rows - 1; r >= 0; r--){
-			for(int c = this.cols - 1; c >= 0; c--){
-				newCells[r][c] = (Cell) this.cells[r][c].clone();
-			}
-		}
 		World world = new World(this.seed, this.rows, this.cols, this.rocks,
 			this.rockAreaConsistency, this.borderRocks, this.anthills, this.anthillSideLength,
 			this.anthillAreaConsistency, this.foodBlobCount, this.foodBlobSideLength,
 			this.foodBlobCellFoodCount,	this.foodBlobAreaConsistency, this.antInitialDirection,
-			this.gap, newCells, this.soundPlayer);
+			this.gap, this.terrain, this.soundPlayer);
 		return world;
 	}
 	
@@ -1392,7 +1987,7 @@ public class World implements Cloneable {
 				s += " ";
 			}
 			for(c = 0; c < this.cols; c++){
-				s += this.cells[r][c].toString() + " ";
+				s += toChar(index(r, c)) + " ";
 			}
 			s += "\r\n";
 		}
@@ -0,0 +1,125 @@
+package antWorld;
+
+import utilities.IllegalArgumentEvent;
+
+/**
+ *  WorldCell
+ *  to present one cell of a World as a Cell, for the GUI and tests,
+ * the World holds its cells as arrays, so this holds no attributes of its
+ * own, every call reads or writes the World's arrays directly.
+ *
+ * @author pkew20 / 57116
+ * @version 1.0
+ */
+final class WorldCell extends Cell {
+	private final World world;
+	private final int index;
+	
+	/**
+	 *  WorldCell
+	 *  constructor for a view of one cell of a World
+	 * @param world the World that holds the cell
+	 * @param index the index of the cell in the World's arrays
+	 * @param row the row of the cell
+	 * @param col the column of the cell
+	 */
+	WorldCell(World world, int index, int row, int col) {
+		super(row, col, false, 0, 0);
+		this.world = world;
+		this.index = index;
+	}
+	
+	/**
+	 *  getWorld
+	 *  to get the World this cell is in
+	 * @return the World that holds this cell
+	 */
+	World getWorld() {
+		return this.world;
+	}
+	
+	/**
+	 *  getIndex
+	 *  to get the index of this cell in its World
+	 * @return the index of this cell in the World's arrays
+	 */
+	int getIndex() {
+		return this.index;
+	}
+	
+	@Override
+	protected void setCell(char c) throws IllegalArgumentEvent {
+		//The terrain may be shared with other Worlds, so cannot be changed
+		throw new IllegalArgumentEvent("Cells of a World cannot be changed once it is built");
+	}
+	
+	@Override
+	protected void setupMarkers(int specieses) {
+		//The World holds the markers of every cell
+	}
+	
+	@Override
+	protected void mark(int species, int i) {
+		this.world.mark(this.index, species, i);
+	}
+	
+	@Override
+	protected void unmark(int species, int i) {
+		this.world.unmark(this.index, species, i);
+	}
+	
+	@Override
+	public boolean getMarker(int species, int i) {
+		return this.world.getMarker(this.index, species, i);
+	}
+	
+	@Override
+	public boolean getAnyMarker(int notSpecies) {
+		return this.world.getAnyMarker(this.index, notSpecies);
+	}
+	
+	@Override
+	protected void setAnt(Ant ant) {
+		this.world.setAnt(this.index, ant);
+	}
+	
+	@Override
+	public Ant getAnt() {
+		return this.world.getAnt(this.index);
+	}
+	
+	@Override
+	public boolean isRocky() {
+		return this.world.isRocky(this.index);
+	}
+	
+	@Override
+	public int foodCount() {
+		return this.world.foodCount(this.index);
+	}
+	
+	@Override
+	public boolean hasFood() {
+		return this.world.hasFood(this.index);
+	}
+	
+	@Override
+	protected void dropFood() {
+		this.world.dropFood(this.index);
+	}
+	
+	@Override
+	protected void pickupFood() {
+		this.world.pickupFood(this.index);
+	}
+	
+	@Override
+	public int getAnthill() {
+		return this.world.getAnthill(this.index);
+	}
+	
+	@Override
+	public boolean hasAnt() {
+		return this.world.hasAnt(this.index);
+	}
+}
@@ -1,9 +1,11 @@
 package antWorld;
 
+import antBrain.BrainParser;
 import static org.junit.Assert.*;
 import org.junit.Test;
 import utilities.ErrorEvent;
 import utilities.IOEvent;
+import utilities.IllegalArgumentEvent;
 import utilities.Logger;
 
 public class WorldTest {
@@ -87,6 +89,182 @@ public class WorldTest {
 		}
 	}
 	
+	@Test
+	public void testCellsShowWorld(){
+		try {
+			this.testWorld = World.getContestWorld(93745, null);
+			Cell[][] worldCells = this.testWorld.getCells();
+			Ant ant = this.testWorld.getAnts()[0];
+			Cell cell = ant.getCell();
+			assertSame(worldCells[cell.getRow()][cell.getCol()], cell);
+			assertEquals(ant, cell.getAnt());
+			
+			//Cells must show changes made to the World after they were created
+			worldCells[1][1].mark(0, 3);
+			assertTrue(worldCells[1][1].getMarker(0, 3));
+			assertTrue(worldCells[1][1].getAnyMarker(1));
+			assertFalse(worldCells[1][1].getAnyMarker(0));
+			assertSame(worldCells, this.testWorld.getCells());
+		} catch (ErrorEvent e) {
+			fail(e.getMessage());
+		}
+	}
+	
+	@Test
+	public void testNeighbourTable(){
+		int[] table = NeighbourTable.getTable(10, 10);
+		assertSame(table, NeighbourTable.getTable(10, 10));
+		//Cell 11 is row 1, col 1, an indented row
+		assertEquals(12, table[(11 * 6) + 0]);
+		assertEquals(22, table[(11 * 6) + 1]);
+		assertEquals(2, table[(11 * 6) + 5]);
+		//Row 0 has no neighbours to the north
+		assertEquals(-1, table[(5 * 6) + 4]);
+		assertEquals(5, NeighbourTable.direction(-1));
+		assertEquals(0, NeighbourTable.direction(6));
+	}
+	
+	@Test
+	public void testScoreboard(){
+		try {
+			this.testWorld = World.getContestWorld(7, null);
+			assertArrayEquals(new int[]{127, 127}, this.testWorld.survivingAntsBySpecies());
+			this.testWorld.setBrain(BrainParser.readBrainFrom("frictionless_bananas_1"), 0);
+			this.testWorld.setBrain(BrainParser.readBrainFrom("surround"), 1);
+			for(int i = 0; i < 20000; i++){
+				this.testWorld.step();
+				if(i % 1000 == 0){
+					assertTrue("scoreboard wrong in round " + i, this.testWorld.checkCounters());
+				}
+			}
+			assertTrue(this.testWorld.checkCounters());
+			assertTrue(((World) this.testWorld.clone()).checkCounters());
+			assertTrue(WorldParser.readWorldFrom("testWorlds/testSenseFood", null).checkCounters());
+		} catch (ErrorEvent e) {
+			fail(e.getMessage());
+		} catch (IOEvent e) {
+			fail(e.getMessage());
+		} catch (IllegalArgumentEvent e) {
+			fail(e.getMessage());
+		}
+	}
+	
+	@Test
+	public void testStepSkipsRestingAnts(){
+		try {
+			//Stepping every Ant directly must give the same game as World.step
+			World scheduled = World.getContestWorld(93745, null);
+			World everyAnt = World.getContestWorld(93745, null);
+			for(World world : new World[]{scheduled, everyAnt}){
+				world.setBrain(BrainParser.readBrainFrom("baxters_brain_3"), 0);
+				world.setBrain(BrainParser.readBrainFrom("frictionless_bananas_1"), 1);
+			}
+			for(int i = 0; i < 5000; i++){
+				scheduled.step();
+				for(Ant ant : everyAnt.getAnts()){
+					ant.step();
+				}
+			}
+			assertEquals(everyAnt.toString(), scheduled.toString());
+			Ant[] ants = everyAnt.getAnts();
+			for(int i = 0; i < ants.length; i++){
+				assertEquals(ants[i].isAlive(), scheduled.getAnts()[i].isAlive());
+				assertEquals(ants[i].getDirection(), scheduled.getAnts()[i].getDirection());
+				assertEquals(ants[i].hasFood(), scheduled.getAnts()[i].hasFood());
+			}
+		} catch (ErrorEvent e) {
+			fail(e.getMessage());
+		} catch (IOEvent e) {
+			fail(e.getMessage());
+		} catch (IllegalArgumentEvent e) {
+			fail(e.getMessage());
+		}
+	}
+	
+	@Test
+	public void testParallelStep(){
+		try {
+			//Stepping on several threads must give exactly the same game
+			this.testWorld = World.getContestWorld(93745, null);
+			assertEquals(-1, ParallelStepVerifier.verify(this.testWorld,
+				BrainParser.readBrainFrom("baxters_brain_3"),
+				BrainParser.readBrainFrom("frictionless_bananas_1"), 5000, 4, 50));
+			
+			World world = (World) this.testWorld.clone();
+			world.setStepThreads(4);
+			assertEquals(4, world.getStepThreads());
+			world.setStepThreads(1);
+			assertEquals(1, world.getStepThreads());
+			//Stripes must be high enough that only neighbours interact
+			world.setStepThreads(100);
+			assertEquals(140 / ParallelStepper.minStripeRows, world.getStepThreads());
+			world.setStepThreads(1);
+		} catch (ErrorEvent e) {
+			fail(e.getMessage());
+		} catch (IOEvent e) {
+			fail(e.getMessage());
+		} catch (IllegalArgumentEvent e) {
+			fail(e.getMessage());
+		}
+	}
+	
+	@Test
+	public void testCloneSharesTerrain(){
+		try {
+			this.testWorld = World.getContestWorld(1, null);
+			String start = this.testWorld.toString();
+			World clone = (World) this.testWorld.clone();
+			this.testWorld.setBrain(BrainParser.readBrainFrom("frictionless_bananas_1"), 0);
+			this.testWorld.setBrain(BrainParser.readBrainFrom("frictionless_bananas_1"), 1);
+			for(int i = 0; i < 3000; i++){
+				this.testWorld.step();
+			}
+			//Playing a game must not change the terrain, or another World's food
+			assertFalse(start.equals(this.testWorld.toString()));
+			assertEquals(start, clone.toString());
+			assertEquals(start, ((World) this.testWorld.clone()).toString());
+			assertTrue(clone.checkCounters());
+		} catch (ErrorEvent e) {
+			fail(e.getMessage());
+		} catch (IOEvent e) {
+			fail(e.getMessage());
+		} catch (IllegalArgumentEvent e) {
+			fail(e.getMessage());
+		}
+	}
+	
+	@Test
+	public void testReset(){
+		try {
+			this.testWorld = World.getContestWorld(1, null);
+			String start = this.testWorld.toString();
+			this.testWorld.setBrain(BrainParser.readBrainFrom("frictionless_bananas_1"), 0);
+			this.testWorld.setBrain(BrainParser.readBrainFrom("baxters_brain_3"), 1);
+			for(int i = 0; i < 3000; i++){
+				this.testWorld.step();
+			}
+			String end = this.testWorld.toString();
+			int[] food = this.testWorld.getFoodInAnthills();
+			
+			//A reset World must replay exactly the same game
+			this.testWorld.reset();
+			assertEquals(start, this.testWorld.toString());
+			assertTrue(this.testWorld.checkCounters());
+			for(int i = 0; i < 3000; i++){
+				this.testWorld.step();
+			}
+			assertEquals(end, this.testWorld.toString());
+			assertArrayEquals(food, this.testWorld.getFoodInAnthills());
+			assertTrue(this.testWorld.checkCounters());
+		} catch (ErrorEvent e) {
+			fail(e.getMessage());
+		} catch (IOEvent e) {
+			fail(e.getMessage());
+		} catch (IllegalArgumentEvent e) {
+			fail(e.getMessage());
+		}
+	}
+	
 	@Test
 	public void testGenerateRandomWorld(){
 		try{
@@ -97,6 +275,23 @@ public class WorldTest {
 		}
 	}
 	
+	@Test
+	public void testContestWorldsUnchanged(){
+		//Hashes of the contest Worlds made before anthill placement was
+		//rewritten, the same seed must always give the same World
+		int[] seeds = {1, 2, 7, 42, 93745};
+		int[] hashes = {-1559923511, 2057208743, 620303739, 769557279, -1834852369};
+		try{
+			for(int i = 0; i < seeds.length; i++){
+				this.testWorld = World.getContestWorld(seeds[i], null);
+				assertEquals("contest world " + seeds[i] + " changed",
+					hashes[i], this.testWorld.toString().hashCode());
+			}
+		} catch (ErrorEvent e) {
+			fail(e.getMessage());
+		}
+	}
+	
 	@Test
 	public void testInvalidWorld(){
 		try {
@@ -0,0 +1,125 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import utilities.ErrorEvent;
+import utilities.IOEvent;
+import utilities.IllegalArgumentEvent;
+import utilities.InformationHighEvent;
+import utilities.Logger;
+import utilities.WarningEvent;
+
+import antBrain.Brain;
+import antBrain.BrainParser;
+import antWorld.World;
+
+/**
+ *  BackendBenchmark
+ *  to compare the throughput of every registered SimulationBackend, by
+ * playing the fitness games of one Brain, 2 in the contest World of each
+ * fitness seed, on a single thread, one game after another.
+ * The results of every backend are checked against the reference backend.
+ *
+ * Usage: BackendBenchmark [rounds] [blackBrain] [redBrain]
+ *
+ * @author pkew20 / 57116
+ * @version 1.0
+ */
+public final class BackendBenchmark {
+	private BackendBenchmark() {
+	}
+	
+	/**
+	 *  measure
+	 *  to play the fitness games of the Brains given with a backend
+	 * @param backend the backend to play the games with
+	 * @param blackBrain the Brain of the training Ants
+	 * @param redBrain the Brain being measured
+	 * @param rounds the number of rounds of each game
+	 * @param results filled with the result of each game, in seed order
+	 * @return the time taken to play every game, in nanoseconds, not
+	 * including making the Worlds
+	 * @throws ErrorEvent if a contest World could not be generated
+	 */
+	public static long measure(SimulationBackend backend, Brain blackBrain,
+		Brain redBrain, int rounds, List<GameStats> results) throws ErrorEvent {
+		List<SimulationBackend.Match> matches = new ArrayList<SimulationBackend.Match>();
+		for(int seed = 1; seed <= GameEngine.fitnessSeeds; seed++){
+			matches.add(backend.setup(blackBrain, redBrain, World.getContestWorld(seed, null)));
+			matches.add(backend.setup(redBrain, blackBrain, World.getContestWorld(seed, null)));
+		}
+		
+		long start = System.nanoTime();
+		for(SimulationBackend.Match match : matches){
+			match.run(rounds);
+		}
+		long duration = System.nanoTime() - start;
+		
+		for(SimulationBackend.Match match : matches){
+			results.add(match.getGameStats());
+			match.close();
+		}
+		return duration;
+	}
+	
+	private static boolean same(GameStats a, GameStats b) {
+		return a.getWinner() == b.getWinner()
+			&& a.getFoodInBlackAnthill() == b.getFoodInBlackAnthill()
+			&& a.getFoodInRedAnthill() == b.getFoodInRedAnthill()
+			&& a.getBlackAntsSurviving() == b.getBlackAntsSurviving()
+			&& a.getRedAntsSurviving() == b.getRedAntsSurviving();
+	}
+	
+	public static void main(String[] args) {
+		Logger.setLogLevel(Logger.LogLevel.HIGH_LOGGING);
+		Logger.setLogToTerminal(true);
+		int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+		String black = args.length > 1 ? args[1] : "baxters_brain_3";
+		String red = args.length > 2 ? args[2] : "frictionless_bananas_1";
+		
+		try{
+			Brain blackBrain = BrainParser.readBrainFrom(black);
+			Brain redBrain = BrainParser.readBrainFrom(red);
+			List<GameStats> expected = new ArrayList<GameStats>();
+			SimulationBackend reference = SimulationBackends.get(ReferenceBackend.name);
+			//Once to warm up the compiler, then measured
+			measure(reference, blackBrain, redBrain, rounds, expected);
+			expected.clear();
+			long referenceDur = measure(reference, blackBrain, redBrain, rounds, expected);
+			
+			for(String name : SimulationBackends.getNames()){
+				SimulationBackend backend = SimulationBackends.get(name);
+				long duration = referenceDur;
+				List<GameStats> results = expected;
+				if(backend != reference){
+					results = new ArrayList<GameStats>();
+					measure(backend, blackBrain, redBrain, rounds, results);
+					results.clear();
+					duration = measure(backend, blackBrain, redBrain, rounds, results);
+				}
+				
+				boolean match = true;
+				for(int i = 0; i < expected.size(); i++){
+					match &= same(expected.get(i), results.get(i));
+				}
+				double seconds = duration / 1e9;
+				Logger.log(new InformationHighEvent(String.format(
+					"%-10s: %6d ms, %7.2f games/s, %10.0f rounds/s, %.2fx reference%s",
+					name, duration / 1000000, results.size() / seconds,
+					(results.size() * (double) rounds) / seconds, referenceDur / (double) duration,
+					match ? "" : ", RESULTS DIFFER")));
+				if(!match){
+					Logger.log(new WarningEvent("Backend " + name
+						+ " does not give the same results as the reference backend"));
+				}
+			}
+		}catch(ErrorEvent e){
+			Logger.log(e);
+		}catch(IOEvent e){
+			Logger.log(e);
+		}catch(IllegalArgumentEvent e){
+			Logger.log(e);
+		}
+	}
+}
@@ -1,11 +1,12 @@
 package engine;
 
+import java.util.ArrayList;
 import java.util.EmptyStackException;
+import java.util.List;
 import java.util.Stack;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.Semaphore;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 
 import utilities.*;
 import antBrain.*;
@@ -30,13 +31,33 @@ import antWorld.*;
  * 
  */
 public class GameEngine {
-	private static final int rounds = 300000;
+	public static final int rounds = 300000;
 	private static final int processors = Runtime.getRuntime().availableProcessors();
-	private int sleepDur = 0;
+	//Fitness is measured in 2 contest Worlds of each seed from 1 to fitnessSeeds
+	public static final int fitnessSeeds = 10;
+	//Most ready Worlds the pool keeps of each kind
+	private static final int poolCapacity = 32;
+	private final WorldPool worldPool;
+	//Set by the GUI while Simulations read it, 0 for unlimited speed
+	private volatile int sleepDur = 0;
+	//If true, simulate() runs as fast as possible, contests always do
+	private volatile boolean headless = false;
+	//Plays every Simulation made by this GameEngine
+	private volatile SimulationBackend backend;
 	private Brain absoluteTrainingBrain;
 //	private Brain relativeTrainingBrain;
-	private ThreadPoolExecutor threadPoolExecutor;
-	private Semaphore semaphore;
+	//Games of every step are played on one long lived pool, pending holds
+	//the results of games submitted since they were last waited for
+	private final MatchExecutor matchExecutor;
+	//The number of games played at once, and Worlds prepared for them
+	private final int threads;
+	private final List<CompletableFuture<GameStats>> pending =
+		new ArrayList<CompletableFuture<GameStats>>();
+	//Results of the games in pending, added to the Brains by awaitMatches()
+	private ResultsTable results = new ResultsTable();
+	//Games of a streamed contest finished so far, guarded by completedLock
+	private final Object completedLock = new Object();
+	private int completed;
 	private Brain[] population;
 	private int stepCount = 0;
 	
@@ -45,13 +66,46 @@ public class GameEngine {
 	 *  to allow the construction of GameEngine objects
 	 */
 	public GameEngine() {
+		this(GameEngine.processors);
+	}
+	
+	/**
+	 *  GameEngine
+	 *  to construct a GameEngine which plays games on the number of threads
+	 * given, so several can share the processors, e.g. one per island of an
+	 * IslandModel
+	 * @param threads the number of games to play at once
+	 */
+	public GameEngine(int threads) {
+		this.threads = threads;
+		//Worlds are made on background threads while Simulations run
+		this.worldPool = new WorldPool(GameEngine.poolCapacity, Math.max(1, threads / 4));
+		this.matchExecutor = new MatchExecutor(threads);
+		try{
+			this.backend = SimulationBackends.getDefault();
+		}catch(IllegalArgumentEvent e){
+			Logger.log(e);
+			this.backend = new ReferenceBackend();
+		}
+		Logger.log(new InformationLowEvent("Simulation backend: " + this.backend.getName()));
 		Logger.log(new InformationLowEvent("New GameEngine object constructed"));
 	}
 	
+	/**
+	 *  getWorldPool
+	 *  to get the pool that this GameEngine takes its contest and fitness
+	 * Worlds from, Simulations give their Worlds back to it when complete
+	 * @return the WorldPool of this GameEngine
+	 */
+	public WorldPool getWorldPool() {
+		return this.worldPool;
+	}
+	
 	/**
 	 *  getSleepDur
-	 *  to return the length of time Simulations should pause between
-	 * step calls to their World
+	 *  to return the average length of time Simulations should take for
+	 * each step call to their World, Simulations sleep between batches of
+	 * steps to keep to this, see Pacer
 	 * @return the sleep duration for Simulations, in milliseconds
 	 */
 	public long getSleepDur() {
@@ -61,13 +115,64 @@ public class GameEngine {
 	/**
 	 *  setSpeed
 	 *  to allow the altering of the amount of time waited by 
-	 * Simulations after each World step
-	 * @param sleepDur the amount of time to set as sleepDur
+	 * Simulations for each World step
+	 * @param sleepDur the amount of time to set as sleepDur, 0 for no waiting
 	 */
 	public void setSleepDur(int sleepDur) {
 		this.sleepDur = sleepDur;
 	}
 	
+	/**
+	 *  isHeadless
+	 *  to check whether simulate() runs without pacing
+	 * @return true if simulate() ignores the sleep duration
+	 */
+	public boolean isHeadless() {
+		return this.headless;
+	}
+	
+	/**
+	 *  setHeadless
+	 *  to choose whether simulate() runs as fast as possible, for when no
+	 * one is watching the game, contest and fitness games are always headless
+	 * @param headless true to ignore the sleep duration in simulate()
+	 */
+	public void setHeadless(boolean headless) {
+		this.headless = headless;
+	}
+	
+	/**
+	 *  getBackend
+	 *  to get the backend that Simulations made by this GameEngine are
+	 * played with, by simulate(), and the contest and fitness steps
+	 * @return the backend in use
+	 */
+	public SimulationBackend getBackend() {
+		return this.backend;
+	}
+	
+	/**
+	 *  setBackend
+	 *  to choose the backend that Simulations made from now on are played
+	 * with, Simulations already made keep their backend
+	 * @param backend the backend to use
+	 */
+	public void setBackend(SimulationBackend backend) {
+		this.backend = backend;
+		Logger.log(new InformationLowEvent("Simulation backend: " + backend.getName()));
+	}
+	
+	/**
+	 *  setBackend
+	 *  to choose the backend registered in SimulationBackends with the name
+	 * given, which Simulations made from now on are played with
+	 * @param name the name of the backend to use
+	 * @throws IllegalArgumentEvent if no backend has the name given
+	 */
+	public void setBackend(String name) throws IllegalArgumentEvent {
+		setBackend(SimulationBackends.get(name));
+	}
+	
 	/**
 	 *  expScale
 	 *  to alter the scale of a value so as to make values from
@@ -165,18 +270,11 @@ public class GameEngine {
 	public void fitnessContestSetup(Brain[] population, Brain absoluteTrainingBrain) {
 		this.population = population;
 		this.absoluteTrainingBrain = absoluteTrainingBrain;
-		
-		if(absoluteTrainingBrain != null){
-			this.threadPoolExecutor = new ThreadPoolExecutor(
-				GameEngine.processors, GameEngine.processors, 1, TimeUnit.NANOSECONDS,
-					new ArrayBlockingQueue<Runnable>(20));
-			this.semaphore = new Semaphore(20, true);
-		}else{
-			this.threadPoolExecutor = new ThreadPoolExecutor(
-				GameEngine.processors, GameEngine.processors, 1, TimeUnit.NANOSECONDS,
-					new ArrayBlockingQueue<Runnable>(population.length - 1));
-			this.semaphore = new Semaphore(population.length - 1, true);
+		this.results = new ResultsTable();
+		for(Brain brain : population){
+			this.results.add(brain);
 		}
+		this.results.add(absoluteTrainingBrain);
 		
 		//Find Brain in elite with highest fitness
 		int index = population.length - 1;
@@ -190,6 +288,115 @@ public class GameEngine {
 //			this.relativeTrainingBrain = population[index];
 //		}
 		this.stepCount = 0;
+		
+		//Start making the fitness Worlds before they are needed
+		if(absoluteTrainingBrain != null){
+			for(int seed = 1; seed <= GameEngine.fitnessSeeds; seed++){
+				this.worldPool.prepare(seed, 2);
+			}
+		}
+	}
+	
+	/**
+	 *  fitnessContestStep
+	 *  to start one set of Simulations for one of the Brains in the
+	 * population, in 2 contest Worlds of each fitness seed taken from the
+	 * WorldPool, this method must be called (population.length) times to
+	 * obtain comparissons for all Brains in the population given.
+	 * The Simulations are not waited for, call awaitMatches() before
+	 * reading the fitness of the Brains
+	 * @param goal the attribute to maximize, such as food or kills
+	 * @throws IllegalArgumentEvent if the GameEngine's goal is invalid
+	 */
+	public void fitnessContestStep(String goal) throws IllegalArgumentEvent {
+		Brain brain = this.population[this.stepCount];
+		
+		//Absolute fitness tests
+		if(brain.getFitness() == 0){
+			//Brain is not in elite
+			fitnessContestStep(brain, goal, GameEngine.rounds, GameEngine.fitnessSeeds);
+		}
+		
+		//increment count
+		this.stepCount++;
+	}
+	
+	/**
+	 *  fitnessContestStep
+	 *  to start the Simulations measuring the fitness of the Brain given,
+	 * whatever its fitness is now, in 2 contest Worlds of each of the first
+	 * seeds fitness seeds, so a Brain can be measured quickly, with short
+	 * games in fewer Worlds, before it is measured in full.
+	 * The Simulations are not waited for, call awaitMatches() before
+	 * reading the fitness of the Brain
+	 * @param brain a Brain of the population given to fitnessContestSetup()
+	 * @param goal the attribute to maximize, such as food or kills
+	 * @param rounds the number of rounds of each game
+	 * @param seeds the number of fitness seeds to play in, at most fitnessSeeds,
+	 * each sets 2 of the fitnesses of the Brain
+	 * @throws IllegalArgumentEvent if the GameEngine's goal is invalid
+	 */
+	public void fitnessContestStep(Brain brain, String goal, int rounds, int seeds)
+		throws IllegalArgumentEvent {
+		List<Simulation> simulations = new ArrayList<Simulation>();
+		for(int world = Math.min(seeds, GameEngine.fitnessSeeds) - 1; world >= 0; world--){
+			addFitnessGames(simulations, brain, goal, rounds, world + 1);
+		}
+		this.pending.addAll(submitAll(simulations));
+	}
+	
+	/**
+	 *  fitnessSeedStep
+	 *  to start the 2 Simulations measuring the fitness of the Brain given
+	 * in the contest Worlds of one fitness seed, so Brains can be measured
+	 * one seed at a time, and those clearly worse than others dropped early,
+	 * without waiting for the games of any other Brain.
+	 * The Simulations are not waited for, call awaitMatches() before
+	 * reading the fitness of the Brain
+	 * @param brain a Brain of the population given to fitnessContestSetup()
+	 * @param goal the attribute to maximize, such as food or kills
+	 * @param rounds the number of rounds of each game
+	 * @param seed the fitness seed, from 1 to fitnessSeeds, which sets the
+	 * fitnesses of the Brain at (seed - 1) * 2 and the one after
+	 * @return the sum of the scores of the Brain in the 2 games, once both
+	 * have finished, a game which could not be played scores 0
+	 * @throws IllegalArgumentEvent if the GameEngine's goal is invalid
+	 */
+	public CompletableFuture<Integer> fitnessSeedStep(final Brain brain, String goal,
+		int rounds, int seed) throws IllegalArgumentEvent {
+		final List<Simulation> simulations = new ArrayList<Simulation>();
+		addFitnessGames(simulations, brain, goal, rounds, seed);
+		List<CompletableFuture<GameStats>> games = submitAll(simulations);
+		this.pending.addAll(games);
+		//The results are recorded before the games complete, so can be read
+		return CompletableFuture.allOf(games.toArray(new CompletableFuture<?>[games.size()]))
+			.handle(new BiFunction<Void, Throwable, Integer>() {
+				@Override
+				public Integer apply(Void done, Throwable throwable) {
+					int score = 0;
+					for(Simulation simulation : simulations){
+						MatchResult result = simulation.getMatchResult();
+						if(result == null) continue;
+						if(result.getBlackBrain() == brain){
+							score += result.getBlackScore();
+						}else{
+							score += result.getRedScore();
+						}
+					}
+					return score;
+				}
+			});
+	}
+	
+	private void addFitnessGames(List<Simulation> simulations, Brain brain, String goal,
+		int rounds, int seed) throws IllegalArgumentEvent {
+		int world = seed - 1;
+		simulations.add(new Simulation(this,
+			this.absoluteTrainingBrain, brain, (world * 2), true,
+			rounds, seed, null, goal));
+		simulations.add(new Simulation(this,
+			brain, this.absoluteTrainingBrain, (world * 2) + 1, true,
+			rounds, seed, null, goal));
 	}
 	
 	/**
@@ -207,19 +414,19 @@ public class GameEngine {
 		//Set fitness for every brain in population
 		Brain brain = this.population[this.stepCount];
 		
-		this.semaphore.acquireUninterruptibly(permits);
 		//Absolute fitness tests
 		if(brain.getFitness() == 0){
 			//Brain is not in elite
-			//At the end of each Simulation.run() one permit is released
+			List<Simulation> simulations = new ArrayList<Simulation>();
 			for(int world = (permits / 2) - 1; world >= 0; world--){
-				this.threadPoolExecutor.execute(new Simulation(this, this.absoluteTrainingBrain, brain,
-					this.semaphore, (world * 2), true, GameEngine.rounds, worlds.pop(), goal));
-				this.threadPoolExecutor.execute(new Simulation(this, brain, this.absoluteTrainingBrain,
-					this.semaphore, (world * 2) + 1, true, GameEngine.rounds, worlds.pop(), goal));
+				simulations.add(new Simulation(this,
+					this.absoluteTrainingBrain, brain, null, (world * 2), true,
+					GameEngine.rounds, worlds.pop(), goal));
+				simulations.add(new Simulation(this,
+					brain, this.absoluteTrainingBrain, null, (world * 2) + 1, true,
+					GameEngine.rounds, worlds.pop(), goal));
 			}
-		}else{
-			this.semaphore.release(permits);
+			this.pending.addAll(submitAll(simulations, true));
 		}
 		
 //		//Relative fitness tests
@@ -228,13 +435,58 @@ public class GameEngine {
 //		this.threadPoolExecutor.execute(new Simulation(this, brain, this.relativeTrainingBrain,
 //			this.semaphore, 3, true, GameEngine.rounds, worlds.pop(), goal));
 		//Await completion of Simulations
-		this.semaphore.acquireUninterruptibly(permits);
-		this.semaphore.release(permits);
+		awaitMatches();
 		
 		//increment count
 		this.stepCount++;
 	}
 	
+	/**
+	 *  awaitMatches
+	 *  to wait for every Simulation started by the contest and fitness steps
+	 * since this method was last called
+	 * @return the results of the Simulations, in the order they were started
+	 */
+	public List<GameStats> awaitMatches() {
+		List<GameStats> gameStats = MatchExecutor.awaitAll(this.pending);
+		this.pending.clear();
+		//Every game is over, so the Brains are only altered by this thread
+		this.results.reduce();
+		return gameStats;
+	}
+	
+	private List<CompletableFuture<GameStats>> submitAll(List<Simulation> simulations,
+		boolean headless) {
+		for(Simulation simulation : simulations){
+			simulation.setHeadless(headless);
+		}
+		return submitAll(simulations);
+	}
+	
+	private List<CompletableFuture<GameStats>> submitAll(List<Simulation> simulations) {
+		List<CompletableFuture<GameStats>> games =
+			new ArrayList<CompletableFuture<GameStats>>(simulations.size());
+		for(Simulation simulation : simulations){
+			games.add(record(simulation, this.matchExecutor.submit(simulation)));
+		}
+		return games;
+	}
+	
+	private CompletableFuture<GameStats> record(final Simulation simulation,
+		CompletableFuture<GameStats> result) {
+		//The result is recorded on the thread that played the game,
+		//before the future completes
+		final ResultsTable results = this.results;
+		return result.whenComplete(new BiConsumer<GameStats, Throwable>() {
+			@Override
+			public void accept(GameStats gameStats, Throwable throwable) {
+				if(simulation.getMatchResult() != null){
+					results.record(simulation.getMatchResult());
+				}
+			}
+		});
+	}
+	
 	/**
 	 *  contestStepAll
 	 *  automatically runs entire contest, with the default seed 1 world
@@ -253,14 +505,100 @@ public class GameEngine {
 	 * @param world a single template World
 	 */
 	public void contestStepAll(World world) {
-		//Get popLen permits, restore as runs complete
-		Stack<World> worlds = new Stack<World>();
-		for(int j = this.population.length; j >= 0; j--){
-			while(worlds.size() < this.population.length - 1) worlds.push((World) world.clone());
-			contestStep(worlds);
+		contestStream(world, null);
+	}
+	
+	/**
+	 *  contestStream
+	 *  to run the entire contest set up by contestSetup, every Brain plays
+	 * every other Brain as black, and all n * (n - 1) games are queued at
+	 * once, so no game waits for another Brain's games to finish.
+	 * Clones of the template World are taken from the WorldPool as each
+	 * game starts
+	 * @param world a single template World, which is not played in
+	 * @param listener told as each game finishes, may be null
+	 * @return the results of the games, black Brain by black Brain,
+	 * in population order
+	 */
+	public List<GameStats> contestStream(World world, final MatchListener listener) {
+		if(this.stepCount > 0){
+			Logger.log(new WarningEvent("contest steps already executed"));
+		}
+		this.worldPool.prepare(world, this.threads);
+		
+		final int total = this.population.length * (this.population.length - 1);
+		this.completed = 0;
+		List<Simulation> simulations = new ArrayList<Simulation>(total);
+		try{
+			for(int black = 0; black < this.population.length; black++){
+				for(int red = 0; red < this.population.length; red++){
+					if(red == black) continue;
+					simulations.add(new Simulation(this, this.population[black],
+						this.population[red], 0, false, GameEngine.rounds, 0, world, "food"));
+				}
+			}
+		}catch(IllegalArgumentEvent e){
+			Logger.log(e);
+		}
+		for(CompletableFuture<GameStats> result : submitAll(simulations)){
+			if(listener != null){
+				result = result.whenComplete(new BiConsumer<GameStats, Throwable>() {
+					@Override
+					public void accept(GameStats gameStats, Throwable throwable) {
+						matchComplete(listener, gameStats, total);
+					}
+				});
+			}
+			this.pending.add(result);
+		}
+		this.stepCount = this.population.length;
+		
+		List<GameStats> gameStats = awaitMatches();
+		this.worldPool.remove(world);
+		return gameStats;
+	}
+	
+	private void matchComplete(MatchListener listener, GameStats gameStats, int total) {
+		//One at a time, so the listener sees completed count up
+		synchronized(this.completedLock){
+			this.completed++;
+			listener.matchComplete(gameStats, this.completed, total);
 		}
 	}
 	
+	/**
+	 *  contestStep
+	 *  to start one set of Simulations for one of the Brains in the
+	 * population, in clones of the template World taken from the WorldPool,
+	 * this method must be called (population.length) times to
+	 * obtain comparissons for all Brains in the population given.
+	 * The Simulations are not waited for, call awaitMatches() before
+	 * reading the results of the Brains
+	 * @param world a single template World, which is not played in
+	 */
+	public void contestStep(World world) {
+		if(this.stepCount >= this.population.length){
+			Logger.log(new WarningEvent("all contest steps executed"));
+			return;
+		}
+		
+		List<Simulation> simulations = new ArrayList<Simulation>();
+		try{
+			for(int i = 0; i < this.population.length; i++){
+				if(i == this.stepCount) continue;
+				simulations.add(new Simulation(this,
+					this.population[this.stepCount], this.population[i], 0, false,
+					GameEngine.rounds, 0, world, "food"));
+			}
+		}catch(IllegalArgumentEvent e){
+			Logger.log(e);
+		}
+		this.pending.addAll(submitAll(simulations));
+		
+		//increment count
+		this.stepCount++;
+	}
+	
 	/**
 	 *  contestStep
 	 *  to perform one set of Simulations for one of the Brains in the
@@ -269,32 +607,43 @@ public class GameEngine {
 	 * @param worlds must contain at least (population.length - 1) Worlds
 	 */
 	public void contestStep(Stack<World> worlds) {
-		//Get popLen permits, restore as runs complete
 		if(this.stepCount >= this.population.length){
 			Logger.log(new WarningEvent("all contest steps executed"));
 			return;
 		}
 		
-		this.semaphore.acquireUninterruptibly(this.population.length - 1);
+		List<Simulation> simulations = new ArrayList<Simulation>();
 		try{
 			for(int i = 0; i < this.population.length; i++){
 				if(i == this.stepCount) continue;
-				this.threadPoolExecutor.execute(new Simulation(this, this.population[this.stepCount],
-					this.population[i],	this.semaphore, 0, false, GameEngine.rounds, worlds.pop(), "food"));
+				simulations.add(new Simulation(this,
+					this.population[this.stepCount], this.population[i], null, 0, false,
+					GameEngine.rounds, worlds.pop(), "food"));
 			}
+			this.pending.addAll(submitAll(simulations, true));
 		}catch(EmptyStackException e){
 			throw new IllegalArgumentException(e.getMessage(), e);
 		} catch (IllegalArgumentEvent e) {
 			Logger.log(e);
 		}
 		//Await completion of Simulations
-		this.semaphore.acquireUninterruptibly(this.population.length - 1);
-		this.semaphore.release(this.population.length - 1);
+		awaitMatches();
 		
 		//increment count
 		this.stepCount++;
 	}
 	
+	/**
+	 *  shutdown
+	 *  to stop the threads used to play games and make Worlds, once every
+	 * game already started is complete, the GameEngine cannot be used for
+	 * contests afterwards
+	 */
+	public void shutdown() {
+		this.matchExecutor.shutdown();
+		this.worldPool.shutdown();
+	}
+	
 	/**
 	 *  simulate
 	 *  to runs a standard simulation using the Brains and World given,
@@ -312,10 +661,18 @@ public class GameEngine {
 		//Run the simulation, test the Brain result from the GA against bestBrain
 		Logger.log(new InformationLowEvent("Begun simulation"));
 		
-		//Runs in serial
+		//Runs in serial, the result still goes through a ResultsTable,
+		//as in contests
 		try {
-			new Simulation(this, blackBrain, redBrain, null,
-				0, false, GameEngine.rounds, world, "food").run();
+			Simulation simulation = new Simulation(this, blackBrain, redBrain, null,
+				0, false, GameEngine.rounds, world, "food");
+			simulation.setHeadless(this.headless);
+			simulation.run();
+			ResultsTable results = new ResultsTable();
+			results.add(blackBrain);
+			results.add(redBrain);
+			results.record(simulation.getMatchResult());
+			results.reduce();
 		} catch (IllegalArgumentEvent e) {
 			Logger.log(e);
 		}
@@ -357,6 +714,7 @@ public class GameEngine {
 	private static void runBrainContest() {
 		//Used by the main method to test Brains infinite seeded worlds
 		GameEngine gameEngine = new GameEngine();
+		gameEngine.setHeadless(true);
 		Brain ga = null;
 		Brain testBrain = null;
 		try{
@@ -427,7 +785,18 @@ public class GameEngine {
 			return;
 		}
 		GameEngine gameEngine = new GameEngine();
+		gameEngine.setHeadless(true);
 		GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm("surround");
+		try {
+			//Screen new Brains with games a tenth as long in 2 of the fitness seeds,
+			//and measure the best half of them in full
+			geneticAlgorithm.setScreening(GameEngine.rounds / 10, 2, 50);
+			//Racing is left off, the range a score can take in a contest World
+			//is too wide for fitnessSeeds seeds to ever show a Brain is worse
+//			geneticAlgorithm.setRacing(3, 0.05);
+		} catch (IllegalArgumentEvent e) {
+			Logger.log(e);
+		}
 		
 		Brain gaBrain = null;
 		gaBrain = geneticAlgorithm.getBestBrain(gameEngine, trainingBrain,
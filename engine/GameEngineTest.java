@@ -1,6 +1,8 @@
 package engine;
 
 import static org.junit.Assert.*;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.Test;
 import antBrain.Brain;
 import antBrain.BrainParser;
@@ -39,4 +41,48 @@ public class GameEngineTest {
 		assertEquals(0,this.stats.getFoodInBlackAnthill()); //there should be no food left in the dummy ants hill
 		assertTrue(this.stats.getFoodInRedAnthill() > 0); //there should be more than 0 food in this ant hill
 	}
+	
+	@Test
+	public void testContestStream(){
+		try{
+			GameEngine testEngine = new GameEngine();
+			Brain[] brainArray = new Brain[3];
+			brainArray[0] = BrainParser.readBrainFrom("blank");
+			brainArray[1] = BrainParser.readBrainFrom("better_example");
+			brainArray[2] = BrainParser.readBrainFrom("blank");
+			testEngine.contestSetup(brainArray);
+			final List<Integer> progress = new ArrayList<Integer>();
+			//The listener is called on the pool's threads, so only records,
+			//failures there would not fail the test
+			final List<Integer> totals = new ArrayList<Integer>();
+			List<GameStats> results = testEngine.contestStream(World.getContestWorld(1, null),
+				new MatchListener() {
+					@Override
+					public void matchComplete(GameStats gameStats, int completed, int total) {
+						totals.add(total);
+						progress.add(completed);
+					}
+				});
+			//Every pairing is played once, and progress is reported for each game in turn
+			assertEquals(6, results.size());
+			assertEquals(6, progress.size());
+			for(int i = 0; i < progress.size(); i++){
+				assertEquals(i + 1, (int) progress.get(i));
+				assertEquals(6, (int) totals.get(i));
+			}
+			//blank v better_example, better_example v blank
+			assertEquals(1, results.get(0).getWinner());
+			assertEquals(0, results.get(2).getWinner());
+			//Every game is counted for both of its Brains
+			for(Brain brain : brainArray){
+				assertEquals(4, brain.getWins() + brain.getLosses() + brain.getDraws());
+			}
+		} catch (IOEvent e) {
+			fail(e.getMessage());
+		} catch (IllegalArgumentEvent e) {
+			fail(e.getMessage());
+		} catch (ErrorEvent e) {
+			fail(e.getMessage());
+		}
+	}
 }
@@ -12,6 +12,7 @@ public class GameStats {
 	private int foodInRedAnthill;
 	private int blackAntsSurviving;
 	private int redAntsSurviving;
+	private int rounds; // -1 if not recorded
 	
 	/**
 	 * Constructs a new GameStats class.
@@ -29,11 +30,31 @@ public class GameStats {
 	public GameStats(int winner, int foodInBlackAnthill, 
 					 int foodInRedAnthill, int blackAntsSurviving,
 					 int redAntsSurviving) {
+		this(winner, foodInBlackAnthill, foodInRedAnthill, blackAntsSurviving,
+			redAntsSurviving, -1);
+	}
+	
+	/**
+	 * Constructs a new GameStats class, recording the number of rounds
+	 * played, which is fewer than asked for if the game was stopped once
+	 * no Ants were left alive.
+	 * 
+	 * @param winner The brain which won the game.
+	 * @param foodInBlackAnthill The amount of food in the black anthill.
+	 * @param foodInRedAnthill The amount of food in the red anthill.
+	 * @param blackAntsSurviving Number of black ants left surviving.
+	 * @param redAntsSurviving Number of red ants left surviving.
+	 * @param rounds The number of rounds played.
+	 */
+	public GameStats(int winner, int foodInBlackAnthill, 
+					 int foodInRedAnthill, int blackAntsSurviving,
+					 int redAntsSurviving, int rounds) {
 		this.winner = winner;
 		this.foodInBlackAnthill = foodInBlackAnthill;
 		this.foodInRedAnthill = foodInRedAnthill;
 		this.blackAntsSurviving = blackAntsSurviving;
 		this.redAntsSurviving = redAntsSurviving;
+		this.rounds = rounds;
 	}
 	
 	/**
@@ -70,4 +91,11 @@ public class GameStats {
 	public int getRedAntsSurviving() {
 		return this.redAntsSurviving;
 	}
+	
+	/**
+	 * @return Rounds played before the game ended, or -1 if not recorded
+	 */
+	public int getRounds() {
+		return this.rounds;
+	}
 }
@@ -0,0 +1,95 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+import utilities.ErrorEvent;
+import utilities.Logger;
+
+/**
+ *  MatchExecutor
+ *  to run Simulations on a long lived work-stealing pool of threads,
+ * returning a future result for each, so the games of many Brains can be
+ * played at once, and only waited for when all of their results are needed.
+ *
+ * @author pkew20 / 57116
+ * @version 1.0
+ */
+public final class MatchExecutor {
+	private final ForkJoinPool pool;
+	
+	/**
+	 *  MatchExecutor
+	 *  to construct a MatchExecutor, the threads of which are daemons,
+	 * so do not keep the Virtual Machine running
+	 * @param parallelism the number of games to play at once
+	 */
+	public MatchExecutor(int parallelism) {
+		this.pool = new ForkJoinPool(parallelism);
+	}
+	
+	/**
+	 *  submit
+	 *  to queue a Simulation to be run on the pool
+	 * @param simulation the Simulation to run
+	 * @return the result of the Simulation, once it has been run,
+	 * completes with null if the Simulation had no World to play in
+	 */
+	public CompletableFuture<GameStats> submit(final Simulation simulation) {
+		return CompletableFuture.supplyAsync(new Supplier<GameStats>() {
+			@Override
+			public GameStats get() {
+				simulation.run();
+				return simulation.getGameStats();
+			}
+		}, this.pool);
+	}
+	
+	/**
+	 *  submitAll
+	 *  to queue a batch of Simulations to be run on the pool
+	 * @param simulations the Simulations to run
+	 * @return the results of the Simulations, in the same order
+	 */
+	public List<CompletableFuture<GameStats>> submitAll(List<Simulation> simulations) {
+		List<CompletableFuture<GameStats>> results =
+			new ArrayList<CompletableFuture<GameStats>>(simulations.size());
+		for(Simulation simulation : simulations){
+			results.add(submit(simulation));
+		}
+		return results;
+	}
+	
+	/**
+	 *  awaitAll
+	 *  to wait for every result given to complete
+	 * @param results the future results of Simulations
+	 * @return the results, in the same order, a Simulation which failed
+	 * has a null result, and the failure is logged
+	 */
+	public static List<GameStats> awaitAll(List<CompletableFuture<GameStats>> results) {
+		List<GameStats> gameStats = new ArrayList<GameStats>(results.size());
+		for(CompletableFuture<GameStats> result : results){
+			try{
+				gameStats.add(result.join());
+			}catch(CompletionException e){
+				Logger.log(new ErrorEvent("Simulation failed: " + e.getCause(), e.getCause()));
+				gameStats.add(null);
+			}
+		}
+		return gameStats;
+	}
+	
+	/**
+	 *  shutdown
+	 *  to stop the pool once every Simulation already submitted has run,
+	 * no more Simulations can be submitted afterwards
+	 */
+	public void shutdown() {
+		this.pool.shutdown();
+	}
+}
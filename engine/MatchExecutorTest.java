@@ -0,0 +1,61 @@
+package engine;
+
+import static org.junit.Assert.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.Test;
+import antBrain.Brain;
+import antBrain.BrainParser;
+import antWorld.World;
+import utilities.ErrorEvent;
+import utilities.IOEvent;
+import utilities.IllegalArgumentEvent;
+import utilities.Logger;
+
+public class MatchExecutorTest {
+	public MatchExecutor testExecutor = new MatchExecutor(2);
+	
+	public MatchExecutorTest(){
+		Logger.setLogLevel(Logger.LogLevel.WARNING_LOGGING);
+	}
+	
+	@Test
+	public void testSubmitAll(){
+		try {
+			GameEngine gameEngine = new GameEngine();
+			Brain blank = BrainParser.readBrainFrom("blank");
+			Brain better = BrainParser.readBrainFrom("better_example");
+			List<Simulation> simulations = new ArrayList<Simulation>();
+			for(int seed = 1; seed <= 4; seed++){
+				simulations.add(new Simulation(gameEngine, blank, better, null, 0, false,
+					2000, World.getContestWorld(seed, null), "food"));
+			}
+			List<CompletableFuture<GameStats>> results = this.testExecutor.submitAll(simulations);
+			List<GameStats> gameStats = MatchExecutor.awaitAll(results);
+			
+			//Results are in the order submitted, and the blank Brain never gathers food
+			assertEquals(4, gameStats.size());
+			for(int i = 0; i < gameStats.size(); i++){
+				assertSame(simulations.get(i).getGameStats(), gameStats.get(i));
+				assertEquals(0, gameStats.get(i).getFoodInBlackAnthill());
+			}
+			//Brains are only altered once the results are reduced
+			assertEquals(0, better.getWins() + better.getDraws());
+			ResultsTable table = new ResultsTable();
+			table.add(blank);
+			table.add(better);
+			for(Simulation simulation : simulations){
+				table.record(simulation.getMatchResult());
+			}
+			table.reduce();
+			assertEquals(4, better.getWins() + better.getDraws());
+		} catch (ErrorEvent e) {
+			fail(e.getMessage());
+		} catch (IOEvent e) {
+			fail(e.getMessage());
+		} catch (IllegalArgumentEvent e) {
+			fail(e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,21 @@
+package engine;
+
+/**
+ *  MatchListener
+ *  to be told as each game of a contest finishes, e.g. to show the
+ * progress of the contest. Games finish on the threads that played them,
+ * in any order, but calls are made one at a time, with completed counting up.
+ *
+ * @author pkew20 / 57116
+ * @version 1.0
+ */
+public interface MatchListener {
+	/**
+	 *  matchComplete
+	 *  called when a game of the contest has finished
+	 * @param gameStats the result of the game, or null if it could not be played
+	 * @param completed the number of games finished so far, including this one
+	 * @param total the number of games in the contest
+	 */
+	public void matchComplete(GameStats gameStats, int completed, int total);
+}
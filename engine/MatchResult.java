@@ -0,0 +1,85 @@
+package engine;
+
+import antBrain.Brain;
+
+/**
+ *  MatchResult
+ *  holds the outcome of one Simulation for both of its Brains, it is
+ * never altered, so it can be passed between threads freely, and is added
+ * to a ResultsTable rather than altering the Brains directly.
+ *
+ * @author pkew20 / 57116
+ * @version 1.0
+ */
+public final class MatchResult {
+	private final Brain blackBrain;
+	private final Brain redBrain;
+	private final int fitness;
+	private final int blackScore;
+	private final int redScore;
+	private final GameStats gameStats;
+	
+	/**
+	 *  MatchResult
+	 *  to construct a MatchResult
+	 * @param blackBrain the Brain of the black Ants
+	 * @param redBrain the Brain of the red Ants
+	 * @param fitness the index of the fitness of each Brain to set to its
+	 * score, or -1 if the game counts as a win, loss or draw instead
+	 * @param blackScore the fitness score of the black Brain
+	 * @param redScore the fitness score of the red Brain
+	 * @param gameStats statistics on the game, which decide the winner
+	 */
+	public MatchResult(Brain blackBrain, Brain redBrain, int fitness,
+		int blackScore, int redScore, GameStats gameStats) {
+		this.blackBrain = blackBrain;
+		this.redBrain = redBrain;
+		this.fitness = fitness;
+		this.blackScore = blackScore;
+		this.redScore = redScore;
+		this.gameStats = gameStats;
+	}
+	
+	/**
+	 * @return the Brain of the black Ants
+	 */
+	public Brain getBlackBrain() {
+		return this.blackBrain;
+	}
+	
+	/**
+	 * @return the Brain of the red Ants
+	 */
+	public Brain getRedBrain() {
+		return this.redBrain;
+	}
+	
+	/**
+	 * @return the index of the fitness set by this game, or -1 if it is
+	 * not a fitness game
+	 */
+	public int getFitness() {
+		return this.fitness;
+	}
+	
+	/**
+	 * @return the fitness score of the black Brain
+	 */
+	public int getBlackScore() {
+		return this.blackScore;
+	}
+	
+	/**
+	 * @return the fitness score of the red Brain
+	 */
+	public int getRedScore() {
+		return this.redScore;
+	}
+	
+	/**
+	 * @return statistics on the game
+	 */
+	public GameStats getGameStats() {
+		return this.gameStats;
+	}
+}
@@ -0,0 +1,77 @@
+package engine;
+
+import utilities.Logger;
+import utilities.WarningEvent;
+
+/**
+ *  Pacer
+ *  to slow a Simulation down to the speed set in its GameEngine, by
+ * sleeping between batches of rounds rather than after every round.
+ * Batches are sized so that the Pacer sleeps about every batchDur
+ * milliseconds, and the sleep makes up for the time the rounds took, so the
+ * number of rounds per second matches the speed however long a round takes.
+ *
+ * @author pkew20 / 57116
+ * @version 1.0
+ */
+final class Pacer {
+	//Milliseconds between sleeps, about one frame of the GUI
+	private static final long batchDur = 20;
+	//Rounds run between checks of the speed when it is unlimited
+	private static final int unlimitedBatch = 1000;
+	private final GameEngine gameEngine;
+	//Rounds run since start, at the sleep duration in force since start
+	private long start;
+	private long rounds;
+	private long sleepDur = -1;
+	
+	/**
+	 *  Pacer
+	 *  to construct a Pacer for the GameEngine given
+	 * @param gameEngine the GameEngine to read the speed from
+	 */
+	Pacer(GameEngine gameEngine) {
+		this.gameEngine = gameEngine;
+	}
+	
+	/**
+	 *  nextBatch
+	 *  to get the number of rounds to run before calling pace(), the speed
+	 * of the GameEngine is read again for every batch
+	 * @return the number of rounds in the next batch, at least 1
+	 */
+	int nextBatch() {
+		long sleepDur = this.gameEngine.getSleepDur();
+		if(sleepDur != this.sleepDur){
+			//Speed has changed, so pace from now
+			this.sleepDur = sleepDur;
+			this.start = System.nanoTime();
+			this.rounds = 0;
+		}
+		if(sleepDur <= 0){
+			return Pacer.unlimitedBatch;
+		}
+		return (int) Math.max(1, Pacer.batchDur / sleepDur);
+	}
+	
+	/**
+	 *  pace
+	 *  to sleep until the rounds run so far are due to have finished
+	 * @param batch the number of rounds just run
+	 */
+	void pace(int batch) {
+		this.rounds += batch;
+		if(this.sleepDur <= 0){
+			return;
+		}
+		long due = this.start + (this.rounds * this.sleepDur * 1000000);
+		long wait = due - System.nanoTime();
+		if(wait > 0){
+			try{
+				Thread.sleep(wait / 1000000, (int) (wait % 1000000));
+			}catch(InterruptedException e){
+				Logger.log(new WarningEvent(e.getMessage(), e));
+			}
+		}
+	}
+}
@@ -0,0 +1,35 @@
+package engine;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class PacerTest {
+	
+	@Test
+	public void testBatchSize(){
+		GameEngine gameEngine = new GameEngine();
+		Pacer pacer = new Pacer(gameEngine);
+		//Unlimited speed runs large batches, slow speeds one round at a time
+		assertEquals(1000, pacer.nextBatch());
+		gameEngine.setSleepDur(2);
+		assertEquals(10, pacer.nextBatch());
+		gameEngine.setSleepDur(500);
+		assertEquals(1, pacer.nextBatch());
+	}
+	
+	@Test
+	public void testPace(){
+		GameEngine gameEngine = new GameEngine();
+		gameEngine.setSleepDur(2);
+		Pacer pacer = new Pacer(gameEngine);
+		long start = System.nanoTime();
+		int rounds = 0;
+		while(rounds < 100){
+			int batch = pacer.nextBatch();
+			rounds += batch;
+			pacer.pace(batch);
+		}
+		//100 rounds at 2ms each must take at least 200ms
+		assertTrue(System.nanoTime() - start >= 200 * 1000000L);
+	}
+}
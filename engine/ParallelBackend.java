@@ -0,0 +1,61 @@
+package engine;
+
+import antBrain.Brain;
+import antWorld.World;
+
+/**
+ *  ParallelBackend
+ *  to play each game with its Ants stepped on several threads, see
+ * World.setStepThreads(), which gives the same results as the reference
+ * backend, and only pays off for Worlds much larger than contest Worlds,
+ * played one at a time.
+ *
+ * @author pkew20 / 57116
+ * @version 1.0
+ */
+public final class ParallelBackend implements SimulationBackend {
+	public static final String name = "parallel";
+	private final int threads;
+	
+	/**
+	 *  ParallelBackend
+	 *  to construct a backend stepping the Ants of each game on the
+	 * number of threads given
+	 * @param threads the number of threads to step each game on
+	 */
+	public ParallelBackend(int threads) {
+		this.threads = threads;
+	}
+	
+	@Override
+	public String getName() {
+		return ParallelBackend.name;
+	}
+	
+	@Override
+	public Match setup(Brain blackBrain, Brain redBrain, final World world) {
+		world.setBrain(blackBrain, 0);
+		world.setBrain(redBrain, 1);
+		//The threads are started once for the whole game, and stopped by
+		//close(), so a World given back to a WorldPool holds none
+		world.setStepThreads(this.threads);
+		return new Match() {
+			@Override
+			public void run(int rounds) {
+				for(int round = 0; round < rounds && world.hasLivingAnts(); round++){
+					world.step();
+				}
+			}
+			
+			@Override
+			public GameStats getGameStats() {
+				return ReferenceBackend.getGameStats(world);
+			}
+			
+			@Override
+			public void close() {
+				world.setStepThreads(1);
+			}
+		};
+	}
+}
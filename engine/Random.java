@@ -56,6 +56,25 @@ public class Random {
 		this.s = this.seed;
 	}
 	
+	/**
+	 *  getState
+	 *  to get the position of this Random in its sequence, so it can be
+	 * returned there later by setState
+	 * @return the current state of the sequence
+	 */
+	public int getState() {
+		return this.s;
+	}
+	
+	/**
+	 *  setState
+	 *  to return this Random to a position in its sequence given by getState
+	 * @param state a state previously returned by getState
+	 */
+	public void setState(int state) {
+		this.s = state;
+	}
+	
 	/**
 	 *  randomInt
 	 *  to get the next int in the sequence given by the seed
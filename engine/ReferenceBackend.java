@@ -0,0 +1,66 @@
+package engine;
+
+import antBrain.Brain;
+import antWorld.World;
+
+/**
+ *  ReferenceBackend
+ *  to play games using World.step(), which steps each Ant object in turn,
+ * every other backend must give the same results as this one.
+ *
+ * @author pkew20 / 57116
+ * @version 1.0
+ */
+public final class ReferenceBackend implements SimulationBackend {
+	public static final String name = "reference";
+	
+	@Override
+	public String getName() {
+		return ReferenceBackend.name;
+	}
+	
+	@Override
+	public Match setup(Brain blackBrain, Brain redBrain, final World world) {
+		world.setBrain(blackBrain, 0);
+		world.setBrain(redBrain, 1);
+		return new Match() {
+			@Override
+			public void run(int rounds) {
+				for(int round = 0; round < rounds && world.hasLivingAnts(); round++){
+					world.step();
+				}
+			}
+			
+			@Override
+			public GameStats getGameStats() {
+				return ReferenceBackend.getGameStats(world);
+			}
+			
+			@Override
+			public void close() {
+				//Nothing is held
+			}
+		};
+	}
+	
+	/**
+	 *  getGameStats
+	 *  to get statistics on a game from the state of its World,
+	 * for use by backends which keep the World up to date
+	 * @param world the World the game was played in
+	 * @return the food in each anthill, the surviving Ants of each species,
+	 * and the species with more food, or -1 for a draw
+	 */
+	public static GameStats getGameStats(World world) {
+		int[] anthillFood = world.getFoodInAnthills();
+		int[] survivors = world.survivingAntsBySpecies();
+		int winner = -1;
+		if(anthillFood[0] > anthillFood[1]){
+			winner = 0;
+		}else if(anthillFood[0] < anthillFood[1]){
+			winner = 1;
+		}
+		return new GameStats(winner, anthillFood[0], anthillFood[1],
+			survivors[0], survivors[1]);
+	}
+}
@@ -0,0 +1,115 @@
+package engine;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import utilities.Logger;
+import utilities.WarningEvent;
+
+import antBrain.Brain;
+
+/**
+ *  ResultsTable
+ *  to gather the MatchResults of games played at the same time on many
+ * threads, without the threads contending for the Brains. Each Brain has
+ * its own tally, counts are LongAdders, so threads recording results for
+ * the same Brain do not lose updates. The totals are only written to the
+ * Brains by reduce(), once every game has finished.
+ *
+ * Brains are added before any games are played, and are kept by identity,
+ * as equal Brains may be different players.
+ *
+ * @author pkew20 / 57116
+ * @version 1.0
+ */
+public final class ResultsTable {
+	//Only altered by add(), before results are recorded,
+	//so can be read by many threads at once
+	private final Map<Brain, Tally> tallies = new IdentityHashMap<Brain, Tally>();
+	
+	/**
+	 *  add
+	 *  to add a Brain to the table, which must happen before any of its
+	 * results are recorded
+	 * @param brain the Brain to keep results for
+	 */
+	public void add(Brain brain) {
+		if(brain != null && !this.tallies.containsKey(brain)){
+			this.tallies.put(brain, new Tally());
+		}
+	}
+	
+	/**
+	 *  record
+	 *  to add the result of a game to the tallies of its Brains,
+	 * may be called by many threads at once
+	 * @param result the result of the game
+	 */
+	public void record(MatchResult result) {
+		Tally black = this.tallies.get(result.getBlackBrain());
+		Tally red = this.tallies.get(result.getRedBrain());
+		if(black == null || red == null){
+			Logger.log(new WarningEvent("result recorded for a Brain not in the ResultsTable"));
+			return;
+		}
+		
+		if(result.getFitness() >= 0){
+			black.setFitness(result.getFitness(), result.getBlackScore());
+			red.setFitness(result.getFitness(), result.getRedScore());
+		}else if(result.getGameStats().getWinner() == 0){
+			black.wins.increment();
+			red.losses.increment();
+		}else if(result.getGameStats().getWinner() == 1){
+			black.losses.increment();
+			red.wins.increment();
+		}else{
+			black.draws.increment();
+			red.draws.increment();
+		}
+	}
+	
+	/**
+	 *  reduce
+	 *  to add the totals of every tally to its Brain, and to empty the
+	 * tallies, must only be called once the games recorded have finished
+	 */
+	public void reduce() {
+		for(Map.Entry<Brain, Tally> entry : this.tallies.entrySet()){
+			entry.getValue().reduce(entry.getKey());
+		}
+	}
+	
+	/**
+	 *  Tally
+	 *  holds the results of one Brain
+	 */
+	private static final class Tally {
+		//Ints in a 64 byte cache line
+		private static final int slotStride = 16;
+		private final LongAdder wins = new LongAdder();
+		private final LongAdder losses = new LongAdder();
+		private final LongAdder draws = new LongAdder();
+		//Each fitness is set by the thread which played its game, so every
+		//slot is given a cache line of its own, the fitness set since the
+		//last reduce at the start, and whether it was set after it
+		private final AtomicIntegerArray fitnesses =
+			new AtomicIntegerArray(Brain.fitnessLength * Tally.slotStride);
+		
+		private void setFitness(int i, int fitness) {
+			this.fitnesses.set(i * Tally.slotStride, fitness);
+			this.fitnesses.set((i * Tally.slotStride) + 1, 1);
+		}
+		
+		private void reduce(Brain brain) {
+			brain.addResults((int) this.wins.sumThenReset(), (int) this.losses.sumThenReset(),
+				(int) this.draws.sumThenReset());
+			for(int i = 0; i < Brain.fitnessLength; i++){
+				if(this.fitnesses.getAndSet((i * Tally.slotStride) + 1, 0) == 1){
+					brain.setFitness(i, this.fitnesses.get(i * Tally.slotStride));
+				}
+			}
+		}
+	}
+}
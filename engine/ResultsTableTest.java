@@ -0,0 +1,70 @@
+package engine;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import antBrain.Brain;
+
+public class ResultsTableTest {
+	
+	@Test
+	public void testConcurrentRecord(){
+		final Brain blackBrain = new Brain(1);
+		final Brain redBrain = new Brain(1);
+		final ResultsTable results = new ResultsTable();
+		results.add(blackBrain);
+		results.add(redBrain);
+		
+		//Many threads recording for the same Brains must not lose results
+		Thread[] threads = new Thread[4];
+		for(int t = 0; t < threads.length; t++){
+			threads[t] = new Thread() {
+				@Override
+				public void run() {
+					for(int i = 0; i < 10000; i++){
+						int winner = (i % 3) - 1;
+						results.record(new MatchResult(blackBrain, redBrain, -1, 0, 0,
+							new GameStats(winner, 0, 0, 0, 0)));
+					}
+				}
+			};
+			threads[t].start();
+		}
+		for(Thread thread : threads){
+			try{
+				thread.join();
+			}catch(InterruptedException e){
+				fail(e.getMessage());
+			}
+		}
+		results.reduce();
+		
+		assertEquals(13332, blackBrain.getWins());
+		assertEquals(13332, blackBrain.getLosses());
+		assertEquals(13336, blackBrain.getDraws());
+		assertEquals(13332, redBrain.getLosses());
+		assertEquals(13332, redBrain.getWins());
+		assertEquals(13336, redBrain.getDraws());
+		
+		//Totals are only added once
+		results.reduce();
+		assertEquals(13332, blackBrain.getWins());
+	}
+	
+	@Test
+	public void testFitness(){
+		Brain blackBrain = new Brain(1);
+		Brain redBrain = new Brain(1);
+		redBrain.setFitness(3, 7);
+		ResultsTable results = new ResultsTable();
+		results.add(blackBrain);
+		results.add(redBrain);
+		results.record(new MatchResult(blackBrain, redBrain, 2, 5, -5,
+			new GameStats(0, 5, 0, 0, 0)));
+		results.reduce();
+		
+		//Only the fitness of the game is set, others are kept
+		assertEquals(5, blackBrain.getFitness());
+		assertEquals(2, redBrain.getFitness());
+		assertEquals(0, blackBrain.getWins());
+	}
+}
@@ -3,9 +3,9 @@ package engine;
 import java.util.concurrent.Semaphore;
 
 
+import utilities.ErrorEvent;
 import utilities.IllegalArgumentEvent;
 import utilities.Logger;
-import utilities.WarningEvent;
 
 import antBrain.Brain;
 import antWorld.World;
@@ -28,7 +28,22 @@ public final class Simulation implements Runnable {
 	private final boolean useFitness;
 	private final int rounds;
 	private final int instance;
+	//Chosen when the Simulation is made, so a change of backend only
+	//affects Simulations made afterwards
+	private final SimulationBackend backend;
+	//If world is null, it is taken from the GameEngine's WorldPool when run,
+	//a contest World of seed, or a clone of template if there is one
+	private final int seed;
+	private final World template;
 	private World world;
+	private SimulationBackend.Match match;
+	//If true, rounds are run as fast as possible, with no pacing
+	private boolean headless;
+	//The round of the World when the game started, a game ends early once
+	//no Ants are left alive, see SimulationBackend.Match.run()
+	private int startRound;
+	private GameStats gameStats;
+	private MatchResult matchResult;
 	
 	/**
 	 *  Simulation
@@ -50,14 +65,51 @@ public final class Simulation implements Runnable {
 	public Simulation(GameEngine gameEngine, Brain blackBrain, Brain redBrain,
 		Semaphore semaphore, int fitness, boolean useFitness, int rounds,
 		World world, String goal) throws IllegalArgumentEvent {
+		this(gameEngine, blackBrain, redBrain, semaphore, fitness, useFitness,
+			rounds, 0, null, world, goal);
+	}
+	
+	/**
+	 *  Simulation
+	 *  to construct a Simulation which takes its World from the WorldPool
+	 * of the GameEngine when it is run, and gives it back when complete,
+	 * so Worlds are only in use while their games are being played
+	 * @param gameEngine the GameEngine to get the sleep duration and Worlds from
+	 * @param blackBrain the Brain the black Ants in the World will use
+	 * @param redBrain the Brain the red Ants in the World will use
+	 * @param fitness the index of the fitness array in the Brains to increment
+	 * with the result of the simulation
+	 * @param useFitness if true, add the net food of the Brain's Ants to the
+	 * fitness of the Brain, otherwise increment wins, losses or draws of the
+	 * Brain
+	 * @param rounds the number of steps that each Ant in the World will execute
+	 * @param seed the seed of the contest World to play in, if template is null
+	 * @param template if not null, a clone of template is played in
+	 * @param goal the attribute to maximize, such as food or kills
+	 * @throws IllegalArgumentEvent if the goal is not valid
+	 */
+	Simulation(GameEngine gameEngine, Brain blackBrain, Brain redBrain,
+		int fitness, boolean useFitness, int rounds, int seed, World template,
+		String goal) throws IllegalArgumentEvent {
+		this(gameEngine, blackBrain, redBrain, null, fitness, useFitness,
+			rounds, seed, template, null, goal);
+		this.headless = true;
+	}
+	
+	private Simulation(GameEngine gameEngine, Brain blackBrain, Brain redBrain,
+		Semaphore semaphore, int fitness, boolean useFitness, int rounds,
+		int seed, World template, World world, String goal) throws IllegalArgumentEvent {
 		this.gameEngine = gameEngine;
 		this.blackBrain = blackBrain;
 		this.redBrain = redBrain;
 		this.semaphore = semaphore;
 		this.fitness = fitness;
 		this.useFitness = useFitness;
+		this.seed = seed;
+		this.template = template;
 		this.world = world;
 		this.rounds = rounds;
+		this.backend = gameEngine.getBackend();
 		if(goal.equals("kills")){
 			this.instance = 0;
 		}else if(goal.equals("food")){
@@ -97,6 +149,47 @@ public final class Simulation implements Runnable {
 		return this.world;
 	}
 	
+	/**
+	 *  setHeadless
+	 *  to choose whether this Simulation runs as fast as possible, which
+	 * should be used whenever it is not being watched, otherwise it is paced
+	 * by the speed of the GameEngine, Simulations which take their Worlds
+	 * from the WorldPool are always headless
+	 * @param headless true to run without pacing
+	 */
+	public final void setHeadless(boolean headless) {
+		this.headless = headless;
+	}
+	
+	/**
+	 *  getBackend
+	 *  to get the backend this Simulation is played with
+	 * @return the backend chosen by the GameEngine when this was made
+	 */
+	public final SimulationBackend getBackend() {
+		return this.backend;
+	}
+	
+	/**
+	 *  getGameStats
+	 *  to get the result of this Simulation
+	 * @return statistics on the game, such as food placement at the end,
+	 * or null if the Simulation has not been run, or had no World
+	 */
+	public final GameStats getGameStats() {
+		return this.gameStats;
+	}
+	
+	/**
+	 *  getMatchResult
+	 *  to get the result of this Simulation for both of its Brains
+	 * @return the result, or null if the Simulation has not been run,
+	 * or had no World
+	 */
+	public final MatchResult getMatchResult() {
+		return this.matchResult;
+	}
+	
 	/* (non-Javadoc)
 	 * @see java.lang.Runnable#run()
 	 * 
@@ -106,55 +199,117 @@ public final class Simulation implements Runnable {
 	 */
 	@Override
 	public final void run() {
+		if(start()){
+			try{
+				play();
+			}catch(RuntimeException e){
+				close();
+				throw e;
+			}
+			finish();
+		}
+	}
+	
+	/**
+	 *  start
+	 *  to get the World, if there is none yet, and set up the game in it
+	 * @return false if no World could be taken, so the game can not be played
+	 */
+	private boolean start() {
 		//Using a seed to construct a random means the worlds generated will be more
 		//uniform than using cloning, which seems to be slightly slower for some reason
-		//World now has better brain at 0, GA brain at 1
-		this.world.setBrain(this.blackBrain, 0);
-		this.world.setBrain(this.redBrain, 1);
-		
-		//Run ants for all steps, serial / in this thread
-		for(int round = 0; round < this.rounds; round++){
-			this.world.step();
+		if(this.world == null){
 			try{
-				Thread.sleep(this.gameEngine.getSleepDur());
-			}catch(InterruptedException e){
-				Logger.log(new WarningEvent(e.getMessage(), e));
+				if(this.template == null){
+					this.world = this.gameEngine.getWorldPool().take(this.seed);
+				}else{
+					this.world = this.gameEngine.getWorldPool().take(this.template);
+				}
+			}catch(ErrorEvent e){
+				Logger.log(e);
+				if(this.semaphore != null){
+					this.semaphore.release();
+				}
+				return false;
 			}
 		}
 		
-		//Store the result as the fitness of the red (GA) brain
+		//World now has better brain at 0, GA brain at 1
+		this.startRound = this.world.getRound();
+		this.match = this.backend.setup(this.blackBrain, this.redBrain, this.world);
+		return true;
+	}
+	
+	/**
+	 *  play
+	 *  to run the game for all of its rounds, serial / in this thread
+	 */
+	private void play() {
+		if(this.headless){
+			this.match.run(this.rounds);
+		}else{
+			//Sleep between batches of rounds, to run at the GameEngine's speed
+			Pacer pacer = new Pacer(this.gameEngine);
+			int batch;
+			for(int round = 0; round < this.rounds; round += batch){
+				batch = Math.min(pacer.nextBatch(), this.rounds - round);
+				this.match.run(batch);
+				pacer.pace(batch);
+			}
+		}
+	}
+	
+	/**
+	 *  close
+	 *  to release whatever the Match holds, before the World is given back
+	 */
+	private void close() {
+		if(this.match != null){
+			this.match.close();
+			this.match = null;
+		}
+	}
+	
+	/**
+	 *  finish
+	 *  to record the result of the game, give back the World and let
+	 * the GameEngine thread know that this Simulation has completed
+	 */
+	private void finish() {
+		//Record the result, as the World may be reused once given back
+		GameStats gameStats = this.match.getGameStats();
+		this.gameStats = new GameStats(gameStats.getWinner(),
+			gameStats.getFoodInBlackAnthill(), gameStats.getFoodInRedAnthill(),
+			gameStats.getBlackAntsSurviving(), gameStats.getRedAntsSurviving(),
+			this.world.getRound() - this.startRound);
+		close();
 		
+		//The Brains are not altered here, as other Simulations may be using
+		//them, the GameEngine adds the result to its ResultsTable
+		int blackScore = 0;
+		int redScore = 0;
 		if(this.useFitness){
-			//Increment fitness by score
+			//Fitness is the net score
 			if(this.instance == 0){			//kills
-				int[] ants = this.world.survivingAntsBySpecies();
-				this.blackBrain.setFitness(this.fitness, ants[0] - ants[1]);
-				this.redBrain.setFitness(this.fitness, ants[1] - ants[0]);
+				blackScore = this.gameStats.getBlackAntsSurviving()
+					- this.gameStats.getRedAntsSurviving();
 			}else if(this.instance == 1){	//food
-				int[] anthillFood = this.world.getFoodInAnthills();
-				this.blackBrain.setFitness(this.fitness, anthillFood[0] - anthillFood[1]);
-				this.redBrain.setFitness(this.fitness, anthillFood[1] - anthillFood[0]);
+				blackScore = this.gameStats.getFoodInBlackAnthill()
+					- this.gameStats.getFoodInRedAnthill();
 			}else if(this.instance == 2){	//surround
-				int[] anthillFood = this.world.getFoodInAnthills();
-				this.blackBrain.setFitness(this.fitness, anthillFood[0] - anthillFood[1]);
-				this.redBrain.setFitness(this.fitness, anthillFood[1] - anthillFood[0]);
+				blackScore = this.gameStats.getFoodInBlackAnthill()
+					- this.gameStats.getFoodInRedAnthill();
 			}else{
 				Logger.log(new IllegalArgumentEvent("Illegal type in Simulation.run()"));
 			}
-		}else{
-			//set wins, losses and draws
-			int[] anthillFood = this.world.getFoodInAnthills();
-			if(anthillFood[0] > anthillFood[1]){
-				this.blackBrain.incrementWins();
-				this.redBrain.incrementLosses();
-			}else if(anthillFood[0] < anthillFood[1]){
-				this.blackBrain.incrementLosses();
-				this.redBrain.incrementWins();
-			}else{
-				this.blackBrain.incrementDraws();
-				this.redBrain.incrementDraws();
-			}
+			redScore = -blackScore;
 		}
+		this.matchResult = new MatchResult(this.blackBrain, this.redBrain,
+			this.useFitness ? this.fitness : -1, blackScore, redScore, this.gameStats);
+		
+		//Worlds taken from the GameEngine's pool go back to be reset,
+		//any other World is left as it is, so its result can still be read
+		this.gameEngine.getWorldPool().release(this.world);
 		
 		//Let the GameEngine thread know that this simulation has completed
 		if(this.semaphore != null){
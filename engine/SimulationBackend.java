@@ -0,0 +1,68 @@
+package engine;
+
+import antBrain.Brain;
+import antWorld.World;
+
+/**
+ *  SimulationBackend
+ *  to play a game between two Brains in a World, so engines other than the
+ * object graph of World and Ant can be used to run Simulations, and
+ * compared against it. A backend makes a Match for each game, which holds
+ * whatever state the engine needs, so one backend can play many games at once.
+ *
+ * Backends are registered by name in SimulationBackends, and the GameEngine
+ * chooses one of them for every Simulation it starts.
+ *
+ * @author pkew20 / 57116
+ * @version 1.0
+ */
+public interface SimulationBackend {
+	/**
+	 *  getName
+	 *  to get the name this backend is registered and configured by
+	 * @return the name of the backend
+	 */
+	public String getName();
+	
+	/**
+	 *  setup
+	 *  to set up a game between the Brains given, in the World given
+	 * @param blackBrain the Brain the black Ants in the World will use
+	 * @param redBrain the Brain the red Ants in the World will use
+	 * @param world the World to play in, which must not be used by
+	 * anything else until the game is over
+	 * @return the game, ready to run from its first round
+	 */
+	public Match setup(Brain blackBrain, Brain redBrain, World world);
+	
+	/**
+	 *  Match
+	 *  a game set up by a backend, which may be run in several parts,
+	 * e.g. to pace it for the GUI
+	 */
+	public interface Match {
+		/**
+		 *  run
+		 *  to run the number of rounds given, continuing from the last round
+		 * run, or until no Ants are left alive, as nothing can change afterwards
+		 * @param rounds the most rounds to run
+		 */
+		public void run(int rounds);
+		
+		/**
+		 *  getGameStats
+		 *  to get the state of the game after the rounds run so far, the
+		 * World given to setup() must also hold this state once run() returns
+		 * @return statistics on the game, such as food in each anthill
+		 */
+		public GameStats getGameStats();
+		
+		/**
+		 *  close
+		 *  to release whatever the game holds, such as threads, once it is
+		 * over, before its World is given back, the Match must not be run
+		 * afterwards, but getGameStats() may still be read from its World
+		 */
+		public void close();
+	}
+}
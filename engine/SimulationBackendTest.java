@@ -0,0 +1,131 @@
+package engine;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import antBrain.Brain;
+import antBrain.BrainParser;
+import antWorld.World;
+import utilities.ErrorEvent;
+import utilities.IOEvent;
+import utilities.IllegalArgumentEvent;
+import utilities.Logger;
+
+public class SimulationBackendTest {
+	
+	public SimulationBackendTest(){
+		Logger.setLogLevel(Logger.LogLevel.WARNING_LOGGING);
+	}
+	
+	@Test
+	public void testReference(){
+		try {
+			Brain blackBrain = BrainParser.readBrainFrom("better_example");
+			Brain redBrain = BrainParser.readBrainFrom("sample");
+			World expected = World.getContestWorld(2, null);
+			expected.setBrain(blackBrain, 0);
+			expected.setBrain(redBrain, 1);
+			for(int i = 0; i < 3000; i++){
+				expected.step();
+			}
+			
+			//Running in parts must give the same World as stepping directly
+			World world = World.getContestWorld(2, null);
+			SimulationBackend.Match match = SimulationBackends.get(ReferenceBackend.name)
+				.setup(blackBrain, redBrain, world);
+			match.run(1000);
+			match.run(2000);
+			assertEquals(expected.toString(), world.toString());
+			GameStats gameStats = match.getGameStats();
+			assertEquals(expected.getFoodInAnthills()[0], gameStats.getFoodInBlackAnthill());
+			assertEquals(expected.getFoodInAnthills()[1], gameStats.getFoodInRedAnthill());
+			assertEquals(expected.survivingAntsBySpecies()[0], gameStats.getBlackAntsSurviving());
+			assertEquals(expected.survivingAntsBySpecies()[1], gameStats.getRedAntsSurviving());
+		} catch (ErrorEvent e) {
+			fail(e.getMessage());
+		} catch (IOEvent e) {
+			fail(e.getMessage());
+		} catch (IllegalArgumentEvent e) {
+			fail(e.getMessage());
+		}
+	}
+	
+	@Test
+	public void testParallelClose(){
+		try {
+			Brain blackBrain = BrainParser.readBrainFrom("better_example");
+			Brain redBrain = BrainParser.readBrainFrom("sample");
+			World expected = World.getContestWorld(2, null);
+			expected.setBrain(blackBrain, 0);
+			expected.setBrain(redBrain, 1);
+			for(int i = 0; i < 3000; i++){
+				expected.step();
+			}
+			
+			//The threads last for the whole game, until the Match is closed
+			World world = World.getContestWorld(2, null);
+			SimulationBackend.Match match = new ParallelBackend(4)
+				.setup(blackBrain, redBrain, world);
+			int threads = world.getStepThreads();
+			assertTrue(threads > 1);
+			match.run(1000);
+			assertEquals(threads, world.getStepThreads());
+			match.run(2000);
+			assertEquals(threads, world.getStepThreads());
+			match.close();
+			assertEquals(1, world.getStepThreads());
+			assertEquals(expected.toString(), world.toString());
+		} catch (ErrorEvent e) {
+			fail(e.getMessage());
+		} catch (IOEvent e) {
+			fail(e.getMessage());
+		} catch (IllegalArgumentEvent e) {
+			fail(e.getMessage());
+		}
+	}
+	
+	@Test
+	public void testStopWithoutAnts(){
+		try {
+			Brain blackBrain = BrainParser.readBrainFrom("better_example");
+			Brain redBrain = BrainParser.readBrainFrom("sample");
+			SimulationBackend[] backends = {SimulationBackends.get(ReferenceBackend.name),
+				new ParallelBackend(4)};
+			for(SimulationBackend backend : backends){
+				//Anthills with no cells, so no Ants, nothing can change
+				World empty = new World(1, 30, 30, 0, 2, 0, 1, 3, 5, 0, 1, null);
+				assertFalse(empty.hasLivingAnts());
+				SimulationBackend.Match match = backend.setup(blackBrain, redBrain, empty);
+				match.run(1000);
+				match.close();
+				assertEquals(backend.getName(), 0, empty.getRound());
+				
+				//Games with Ants alive play every round
+				World world = World.getContestWorld(1, null);
+				assertTrue(world.hasLivingAnts());
+				match = backend.setup(blackBrain, redBrain, world);
+				match.run(100);
+				match.close();
+				assertEquals(backend.getName(), 100, world.getRound());
+			}
+		} catch (ErrorEvent e) {
+			fail(e.getMessage());
+		} catch (IOEvent e) {
+			fail(e.getMessage());
+		} catch (IllegalArgumentEvent e) {
+			fail(e.getMessage());
+		}
+	}
+	
+	@Test
+	public void testSelect(){
+		GameEngine gameEngine = new GameEngine();
+		assertEquals(ReferenceBackend.name, gameEngine.getBackend().getName());
+		try {
+			gameEngine.setBackend("no such backend");
+			fail("Unknown backend accepted");
+		} catch (IllegalArgumentEvent e) {
+			//Expected
+		}
+		assertEquals(ReferenceBackend.name, gameEngine.getBackend().getName());
+	}
+}
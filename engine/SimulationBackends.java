@@ -0,0 +1,80 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import utilities.IllegalArgumentEvent;
+
+/**
+ *  SimulationBackends
+ *  to keep every SimulationBackend by name, so the backend used by a
+ * GameEngine can be chosen from configuration, either with setBackend() or
+ * the system property given by property, e.g. -DantBrain.backend=parallel
+ *
+ * @author pkew20 / 57116
+ * @version 1.0
+ */
+public final class SimulationBackends {
+	public static final String property = "antBrain.backend";
+	//The number of threads the parallel backend steps each game on
+	public static final String stepThreadsProperty = "antBrain.stepThreads";
+	private static final Map<String, SimulationBackend> backends =
+		new TreeMap<String, SimulationBackend>();
+	
+	static {
+		register(new ReferenceBackend());
+		register(new ParallelBackend(Integer.getInteger(SimulationBackends.stepThreadsProperty,
+			Runtime.getRuntime().availableProcessors())));
+	}
+	
+	private SimulationBackends() {
+	}
+	
+	/**
+	 *  register
+	 *  to make a backend available by its name, replacing any backend
+	 * already registered with the same name
+	 * @param backend the backend to register
+	 */
+	public static synchronized void register(SimulationBackend backend) {
+		SimulationBackends.backends.put(backend.getName(), backend);
+	}
+	
+	/**
+	 *  get
+	 *  to get the backend registered with the name given
+	 * @param name the name of the backend
+	 * @return the backend
+	 * @throws IllegalArgumentEvent if no backend has the name given
+	 */
+	public static synchronized SimulationBackend get(String name) throws IllegalArgumentEvent {
+		SimulationBackend backend = SimulationBackends.backends.get(name);
+		if(backend == null){
+			throw new IllegalArgumentEvent("Unknown simulation backend: " + name
+				+ ", expected one of " + SimulationBackends.backends.keySet());
+		}
+		return backend;
+	}
+	
+	/**
+	 *  getNames
+	 *  to get the names of every registered backend
+	 * @return the names, in alphabetical order
+	 */
+	public static synchronized List<String> getNames() {
+		return new ArrayList<String>(SimulationBackends.backends.keySet());
+	}
+	
+	/**
+	 *  getDefault
+	 *  to get the backend named by the system property, or the reference
+	 * backend if the property is not set
+	 * @return the configured backend
+	 * @throws IllegalArgumentEvent if the property names no backend
+	 */
+	public static SimulationBackend getDefault() throws IllegalArgumentEvent {
+		return get(System.getProperty(SimulationBackends.property, ReferenceBackend.name));
+	}
+}
@@ -0,0 +1,344 @@
+package engine;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import utilities.ErrorEvent;
+import utilities.InformationNormEvent;
+import utilities.Logger;
+
+import antWorld.World;
+
+/**
+ *  WorldPool
+ *  to keep Worlds ready for Simulations, so games are not held up
+ * waiting for Worlds to be built. Worlds are generated, and reset after
+ * they have been used, on background threads.
+ *
+ * Each kind of World, either the contest World of a seed or clones of a
+ * template World, has its own queue of ready Worlds, which holds no more
+ * than the capacity of the pool. A World taken from an empty queue is a
+ * miss, the time spent waiting for it is recorded.
+ *
+ * @author pkew20 / 57116
+ * @version 1.0
+ */
+public final class WorldPool {
+	//Milliseconds between checks that a World being waited for can still arrive
+	private static final long pollDur = 10;
+	private final int capacity;
+	private final ExecutorService producers;
+	//Keyed by seed for contest Worlds, or by the template World for clones
+	private final Map<Object, Source> sources = new ConcurrentHashMap<Object, Source>();
+	//The Source of every World made by this pool, so it can be given back
+	private final Map<World, Source> owners =
+		Collections.synchronizedMap(new IdentityHashMap<World, Source>());
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong waitDur = new AtomicLong(); //nanoseconds
+	
+	/**
+	 *  WorldPool
+	 *  to construct a WorldPool with the number of background threads given,
+	 * the threads are daemons, so do not keep the Virtual Machine running
+	 * @param capacity the most ready Worlds to keep of each kind
+	 * @param threads the number of threads to generate and reset Worlds on
+	 */
+	public WorldPool(int capacity, int threads) {
+		this.capacity = capacity;
+		this.producers = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "WorldPool");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+	
+	/**
+	 *  prepare
+	 *  to start generating contest Worlds of the seed given in the
+	 * background, so they are ready when they are taken
+	 * @param seed the seed of the contest Worlds
+	 * @param count the number of Worlds to have ready, at most the capacity
+	 */
+	public void prepare(int seed, int count) {
+		prepare(getSource(seed), count);
+	}
+	
+	/**
+	 *  prepare
+	 *  to start cloning the template World given in the background,
+	 * so the clones are ready when they are taken
+	 * @param template the World to clone, which must not be played in
+	 * @param count the number of Worlds to have ready, at most the capacity
+	 */
+	public void prepare(World template, int count) {
+		prepare(getSource(template), count);
+	}
+	
+	/**
+	 *  take
+	 *  to get a contest World of the seed given, ready to play in,
+	 * waiting for one if none are ready
+	 * @param seed the seed of the contest World
+	 * @return a World identical to World.getContestWorld(seed, null)
+	 * @throws ErrorEvent if the World could not be generated
+	 */
+	public World take(int seed) throws ErrorEvent {
+		return take(getSource(seed));
+	}
+	
+	/**
+	 *  take
+	 *  to get a clone of the template World given, ready to play in,
+	 * waiting for one if none are ready
+	 * @param template the World to clone, which must not be played in
+	 * @return a World identical to template.clone()
+	 * @throws ErrorEvent if the World could not be cloned
+	 */
+	public World take(World template) throws ErrorEvent {
+		return take(getSource(template));
+	}
+	
+	/**
+	 *  release
+	 *  to give back a World taken from this pool once its game is over,
+	 * the World is reset in the background and can be taken again,
+	 * Worlds not made by this pool are ignored
+	 * @param world the World to give back, which must no longer be used
+	 */
+	public void release(final World world) {
+		final Source source = this.owners.get(world);
+		if(source == null){
+			return;
+		}
+		if(this.sources.get(source.key) != source){
+			//Kind of World removed from the pool
+			this.owners.remove(world);
+			return;
+		}
+		source.pending.incrementAndGet();
+		this.producers.execute(new Runnable() {
+			@Override
+			public void run() {
+				try{
+					world.reset();
+				}catch(RuntimeException e){
+					//The World is dropped, and made again if needed
+					Logger.log(new ErrorEvent("World could not be reset: " + e, e));
+					WorldPool.this.owners.remove(world);
+					source.made.decrementAndGet();
+					source.pending.decrementAndGet();
+					return;
+				}
+				offer(source, world);
+			}
+		});
+	}
+	
+	/**
+	 *  remove
+	 *  to stop keeping clones of the template World given, once no more
+	 * will be taken, clones still in use are dropped when released
+	 * @param template the template World that clones were taken of
+	 */
+	public void remove(World template) {
+		Source source = this.sources.remove(template);
+		if(source == null){
+			return;
+		}
+		World world;
+		while((world = source.ready.poll()) != null){
+			this.owners.remove(world);
+		}
+	}
+	
+	/**
+	 *  getHits
+	 *  to get the number of Worlds which were ready when taken
+	 * @return the number of hits
+	 */
+	public long getHits() {
+		return this.hits.get();
+	}
+	
+	/**
+	 *  getMisses
+	 *  to get the number of Worlds which had to be waited for when taken
+	 * @return the number of misses
+	 */
+	public long getMisses() {
+		return this.misses.get();
+	}
+	
+	/**
+	 *  getWaitDur
+	 *  to get the total time spent waiting for Worlds by all threads
+	 * @param unit the unit of time to return
+	 * @return the time spent waiting in take()
+	 */
+	public long getWaitDur(TimeUnit unit) {
+		return unit.convert(this.waitDur.get(), TimeUnit.NANOSECONDS);
+	}
+	
+	/**
+	 *  logStatistics
+	 *  to log the hits, misses and waiting time of this pool so far
+	 */
+	public void logStatistics() {
+		Logger.log(new InformationNormEvent("WorldPool hits: " + getHits()
+			+ ";  misses: " + getMisses()
+			+ ";  waited: " + getWaitDur(TimeUnit.MILLISECONDS) + "ms"));
+	}
+	
+	/**
+	 *  shutdown
+	 *  to stop the background threads once every task already started
+	 * has completed, the pool must not be used afterwards
+	 */
+	public void shutdown() {
+		this.producers.shutdown();
+	}
+	
+	private Source getSource(int seed) {
+		Integer key = seed;
+		Source source = this.sources.get(key);
+		if(source == null){
+			//Another thread may have added the seed since get()
+			this.sources.putIfAbsent(key, new Source(key, seed, null, this.capacity));
+			source = this.sources.get(key);
+		}
+		return source;
+	}
+	
+	private Source getSource(World template) {
+		Source source = this.sources.get(template);
+		if(source == null){
+			this.sources.putIfAbsent(template, new Source(template, 0, template, this.capacity));
+			source = this.sources.get(template);
+		}
+		return source;
+	}
+	
+	private void prepare(Source source, int count) {
+		count = Math.min(count, this.capacity);
+		//Only make up the difference from Worlds already made or on their way
+		while(source.made.get() < count){
+			produce(source);
+		}
+	}
+	
+	private World take(Source source) throws ErrorEvent {
+		World world = source.ready.poll();
+		if(world != null){
+			this.hits.incrementAndGet();
+			return world;
+		}
+		
+		this.misses.incrementAndGet();
+		long start = System.nanoTime();
+		try{
+			//If no World is on its way, make one
+			if(source.pending.get() == 0){
+				produce(source);
+			}
+			while(world == null){
+				if(source.error != null){
+					throw new ErrorEvent(source.error.getMessage(), source.error);
+				}
+				try{
+					world = source.ready.poll(WorldPool.pollDur, TimeUnit.MILLISECONDS);
+				}catch(InterruptedException e){
+					Thread.currentThread().interrupt();
+					throw new ErrorEvent("Interrupted while waiting for a World", e);
+				}
+				//Another thread may have taken the World that was on its way
+				if(world == null && source.pending.get() == 0){
+					produce(source);
+				}
+			}
+		}finally{
+			this.waitDur.addAndGet(System.nanoTime() - start);
+		}
+		return world;
+	}
+	
+	private void produce(final Source source) {
+		source.made.incrementAndGet();
+		source.pending.incrementAndGet();
+		this.producers.execute(new Runnable() {
+			@Override
+			public void run() {
+				World world;
+				try{
+					world = source.create();
+				}catch(ErrorEvent e){
+					fail(source, e);
+					return;
+				}catch(RuntimeException e){
+					fail(source, new ErrorEvent("World could not be made: " + e, e));
+					return;
+				}
+				WorldPool.this.owners.put(world, source);
+				offer(source, world);
+			}
+		});
+	}
+	
+	private static void fail(Source source, ErrorEvent e) {
+		//Threads waiting in take() throw the error, rather than wait forever
+		Logger.log(e);
+		source.error = e;
+		source.made.decrementAndGet();
+		source.pending.decrementAndGet();
+	}
+	
+	private void offer(Source source, World world) {
+		//If the queue is full the World is dropped, and made again if needed
+		if(!source.ready.offer(world)){
+			this.owners.remove(world);
+			source.made.decrementAndGet();
+		}
+		source.pending.decrementAndGet();
+	}
+	
+	/**
+	 *  Source
+	 *  holds the ready Worlds of one kind, and how to make more
+	 */
+	private static final class Source {
+		private final Object key;
+		private final int seed;
+		private final World template;
+		private final ArrayBlockingQueue<World> ready;
+		//Worlds made and not dropped, and Worlds being made or reset
+		private final AtomicInteger made = new AtomicInteger();
+		private final AtomicInteger pending = new AtomicInteger();
+		private volatile ErrorEvent error;
+		
+		private Source(Object key, int seed, World template, int capacity) {
+			this.key = key;
+			this.seed = seed;
+			this.template = template;
+			this.ready = new ArrayBlockingQueue<World>(capacity);
+		}
+		
+		private World create() throws ErrorEvent {
+			if(this.template == null){
+				return World.getContestWorld(this.seed, null);
+			}
+			return (World) this.template.clone();
+		}
+	}
+}
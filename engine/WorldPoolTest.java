@@ -0,0 +1,80 @@
+package engine;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import antBrain.BrainParser;
+import antWorld.World;
+import utilities.ErrorEvent;
+import utilities.IOEvent;
+import utilities.IllegalArgumentEvent;
+import utilities.Logger;
+
+public class WorldPoolTest {
+	public WorldPool testPool = new WorldPool(2, 1);
+	
+	public WorldPoolTest(){
+		Logger.setLogLevel(Logger.LogLevel.WARNING_LOGGING);
+	}
+	
+	@Test
+	public void testTakeSeed(){
+		try {
+			String expected = World.getContestWorld(3, null).toString();
+			this.testPool.prepare(3, 1);
+			World world = this.testPool.take(3);
+			assertEquals(expected, world.toString());
+			
+			//A released World is reset before it is taken again
+			world.setBrain(BrainParser.readBrainFrom("better_example"), 0);
+			world.setBrain(BrainParser.readBrainFrom("better_example"), 1);
+			for(int i = 0; i < 1000; i++){
+				world.step();
+			}
+			this.testPool.release(world);
+			assertEquals(expected, this.testPool.take(3).toString());
+			assertEquals(2, this.testPool.getHits() + this.testPool.getMisses());
+		} catch (ErrorEvent e) {
+			fail(e.getMessage());
+		} catch (IOEvent e) {
+			fail(e.getMessage());
+		} catch (IllegalArgumentEvent e) {
+			fail(e.getMessage());
+		}
+	}
+	
+	@Test
+	public void testTakeClone(){
+		try {
+			World template = World.getContestWorld(4, null);
+			World first = this.testPool.take(template);
+			World second = this.testPool.take(template);
+			assertFalse(first == second);
+			assertFalse(first == template);
+			assertEquals(template.toString(), second.toString());
+			
+			//Worlds not made by the pool are ignored
+			this.testPool.release(template);
+			this.testPool.remove(template);
+			assertEquals(2, this.testPool.getMisses());
+		} catch (ErrorEvent e) {
+			fail(e.getMessage());
+		}
+	}
+	
+	@Test(timeout = 10000)
+	public void testTakeFailedClone(){
+		try {
+			//A World which cannot be made must fail take(), not leave it waiting
+			World template = new World(5, 140, 140, 13, 2, 7, 10, 5, 5, 0, 1, null) {
+				@Override
+				public Object clone() {
+					throw new IllegalStateException("clone failed");
+				}
+			};
+			this.testPool.take(template);
+			fail("take() returned a World which could not be made");
+		} catch (ErrorEvent e) {
+			assertTrue(e.getMessage().contains("clone failed"));
+		}
+	}
+}
@@ -1,9 +1,10 @@
 package gUI;
 
-import java.util.Stack;
 import utilities.ErrorEvent;
 import utilities.IllegalArgumentEvent;
 import engine.GameEngine;
+import engine.GameStats;
+import engine.MatchListener;
 import antBrain.Brain;
 import antWorld.World;
 
@@ -43,18 +44,17 @@ public class ContestRunner extends Thread {
 			this.gameEngine.contestSetup(this.brains);
 			//Create a world to use
 			world = World.getContestWorld(1, null);
-			Stack<World> worlds = new Stack<World>();
-			for(int i = 0 ; i <= this.brains.length; i++) {
-				//Create a new clone of the world for all the matches in this 
-				//step
-				while(worlds.size() < this.brains.length - 1) {
-					worlds.push((World) world.clone());
+			//All the games are queued at once, and clones of the world
+			//are made for them in the background by the game engine's pool
+			this.contestWindow.setProgressBarMax(
+				this.brains.length * (this.brains.length - 1));
+			this.gameEngine.contestStream(world, new MatchListener() {
+				@Override
+				public void matchComplete(GameStats gameStats, int completed, int total) {
+					//increase the progress bar as each game finishes
+					ContestRunner.this.contestWindow.setProgressBarVal(completed);
 				}
-				//increase the progress bar for each iteration
-				this.contestWindow.setProgressBarVal(i);
-				//Runs a step of the contest
-				this.gameEngine.contestStep(worlds);
-			}
+			});
 			//Tell the contest window that the contest is complete
 			this.contestWindow.notifyContestComplete(this.brains);
 		} catch (IllegalArgumentEvent iAE) {
@@ -159,6 +159,10 @@ public class ContestWindow {
 		this.progressBar.setValue(val);
 	}
 	
+	protected void setProgressBarMax(int max) {
+		this.progressBar.setMaximum(max);
+	}
+	
 	protected void notifyContestComplete(Brain[] brains) {
 		for (int i = 0; i < brains.length; i++) {
 			String wins = Integer.toString(brains[i].getWins());